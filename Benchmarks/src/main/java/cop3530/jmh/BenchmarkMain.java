@@ -0,0 +1,38 @@
+package cop3530.jmh ;
+
+import org.openjdk.jmh.profile.GCProfiler ;
+import org.openjdk.jmh.runner.Runner ;
+import org.openjdk.jmh.runner.options.CommandLineOptions ;
+import org.openjdk.jmh.runner.options.Options ;
+import org.openjdk.jmh.runner.options.OptionsBuilder ;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler, so every result also shows
+ * the bytes allocated per operation and the time spent collecting. It takes
+ * the same arguments as org.openjdk.jmh.Main, for example a regular
+ * expression naming the benchmarks to run or -p size=1000 to fix a
+ * parameter.
+ * @author Aqib Shah
+ */
+public class BenchmarkMain
+{
+    public static void main( String [ ] args ) throws Exception
+    {
+        CommandLineOptions cmd = new CommandLineOptions( args ) ;
+        if ( cmd.shouldHelp( ) )
+        {
+            cmd.showHelp( ) ;
+            return ;
+        }
+
+        Options options = new OptionsBuilder( )
+                .parent( cmd )
+                .addProfiler( GCProfiler.class )
+                .build( ) ;
+        Runner runner = new Runner( options ) ;
+        if ( cmd.shouldList( ) )
+            runner.list( ) ;
+        else
+            runner.run( ) ;
+    }
+}
@@ -0,0 +1,110 @@
+package cop3530.jmh ;
+
+import java.io.IOException ;
+import java.io.PrintWriter ;
+import java.lang.reflect.Constructor ;
+import java.lang.reflect.Method ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.util.Map ;
+import java.util.Random ;
+import java.util.concurrent.TimeUnit ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.TearDown ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+/**
+ * Times Boggle.solve on random square boards against a random dictionary.
+ * Boggle is a package-private class in the default package, so it is
+ * reached by reflection, looked up once in setup.
+ * @author Aqib Shah
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3 , time = 1 )
+@Measurement( iterations = 5 , time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class BoggleBench
+{
+    private static final int MIN_WORD = 3 ;         //Shorter ones are skipped
+    private static final int MAX_WORD = 8 ;
+
+    @Param( { "4" , "8" , "16" } )
+    private int size ;                              //Rows and columns
+
+    @Param( { "10000" , "100000" } )
+    private int words ;                             //Words in the dictionary
+
+    private Path puzzleFile ;
+    private Path dictionaryFile ;
+    private Object board ;                          //A Boggle
+    private Method solve ;
+
+    @Setup( Level.Trial )
+    public void makeBoard( ) throws Exception
+    {
+        Random rand = new Random( 42 ) ;
+        puzzleFile = Files.createTempFile( "puzzle" , ".txt" ) ;
+        try ( PrintWriter out =
+                new PrintWriter( Files.newBufferedWriter( puzzleFile ) ) )
+        {
+            for ( int r = 0 ; r < size ; r++ )
+                out.println( randomLetters( size , rand ) ) ;
+        }
+        dictionaryFile = Files.createTempFile( "dict" , ".txt" ) ;
+        try ( PrintWriter out =
+                new PrintWriter( Files.newBufferedWriter( dictionaryFile ) ) )
+        {
+            for ( int i = 0 ; i < words ; i++ )
+                out.println( randomLetters( MIN_WORD
+                        + rand.nextInt( MAX_WORD - MIN_WORD + 1 ) , rand ) ) ;
+        }
+
+        Class < ? > boggle = Class.forName( "Boggle" ) ;
+        Constructor < ? > ctor = boggle.getConstructor( String.class ,
+                                                        String.class ) ;
+        ctor.setAccessible( true ) ;
+        board = ctor.newInstance( puzzleFile.toString( ) ,
+                                  dictionaryFile.toString( ) ) ;
+        solve = boggle.getMethod( "solve" ) ;
+        solve.setAccessible( true ) ;
+    }
+
+    @TearDown( Level.Trial )
+    public void deleteFiles( ) throws IOException
+    {
+        Files.deleteIfExists( puzzleFile ) ;
+        Files.deleteIfExists( dictionaryFile ) ;
+    }
+
+    /**
+     * Makes a string of random lower case letters.
+     * @param length the number of letters.
+     * @param rand the source of letters.
+     * @return the string.
+     */
+    private static String randomLetters( int length , Random rand )
+    {
+        char [ ] letters = new char[ length ] ;
+        for ( int i = 0 ; i < length ; i++ )
+            letters[ i ] = ( char ) ( 'a' + rand.nextInt( 26 ) ) ;
+        return new String( letters ) ;
+    }
+
+    @Benchmark
+    public Map < ? , ? > solve( ) throws Exception
+    {
+        return ( Map < ? , ? > ) solve.invoke( board ) ;
+    }
+}
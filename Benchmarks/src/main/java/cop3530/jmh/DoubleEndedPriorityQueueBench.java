@@ -0,0 +1,118 @@
+package cop3530.jmh ;
+
+import cop3530.DoubleEndedPriorityQueue ;
+import cop3530.ListDoubleEndedPriorityQueue ;
+import cop3530.TreeDoubleEndedPriorityQueue ;
+import java.util.Random ;
+import java.util.concurrent.TimeUnit ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+/**
+ * Compares ListDoubleEndedPriorityQueue with TreeDoubleEndedPriorityQueue on
+ * random values. addDeleteMin and addDeleteMax add one value and delete one
+ * from a queue that stays at the given size; fill adds that many values to
+ * an empty queue.
+ * @author Aqib Shah
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3 , time = 1 )
+@Measurement( iterations = 5 , time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class DoubleEndedPriorityQueueBench
+{
+    private static final int VALUES = 1 << 16 ;     //Random values kept
+
+    @Param( { "list" , "tree" } )
+    private String impl ;                           //Which queue
+
+    @Param( { "1000" , "100000" } )
+    private int size ;                              //Values in the queue
+
+    private Integer [ ] values ;                    //Random, reused in turn
+    private DoubleEndedPriorityQueue < Integer > queue ;
+    private int next ;                              //Next value to add
+
+    @Setup( Level.Trial )
+    public void makeValues( )
+    {
+        Random rand = new Random( 42 ) ;
+        values = new Integer[ VALUES ] ;
+        for ( int i = 0 ; i < VALUES ; i++ )
+            values[ i ] = rand.nextInt( ) ;
+    }
+
+    @Setup( Level.Iteration )
+    public void fillQueue( )
+    {
+        queue = fullQueue( ) ;
+        next = 0 ;
+    }
+
+    /**
+     * Makes an empty queue of the kind being measured.
+     * @return the queue.
+     */
+    private DoubleEndedPriorityQueue < Integer > newQueue( )
+    {
+        if ( impl.equals( "list" ) )
+            return new ListDoubleEndedPriorityQueue<>( ) ;
+        return new TreeDoubleEndedPriorityQueue<>( ) ;
+    }
+
+    /**
+     * Makes a queue holding size random values.
+     * @return the queue.
+     */
+    private DoubleEndedPriorityQueue < Integer > fullQueue( )
+    {
+        DoubleEndedPriorityQueue < Integer > q = newQueue( ) ;
+        for ( int i = 0 ; i < size ; i++ )
+            q.add( values[ i & ( VALUES - 1 ) ] ) ;
+        return q ;
+    }
+
+    /**
+     * Picks the next random value, going round all of them.
+     * @return the value.
+     */
+    private Integer nextValue( )
+    {
+        Integer x = values[ next ] ;
+        next = ( next + 1 ) & ( VALUES - 1 ) ;
+        return x ;
+    }
+
+    @Benchmark
+    public Integer addDeleteMin( )
+    {
+        queue.add( nextValue( ) ) ;
+        return queue.deleteMin( ) ;
+    }
+
+    @Benchmark
+    public Integer addDeleteMax( )
+    {
+        queue.add( nextValue( ) ) ;
+        return queue.deleteMax( ) ;
+    }
+
+    @Benchmark
+    @OutputTimeUnit( TimeUnit.MICROSECONDS )
+    public DoubleEndedPriorityQueue < Integer > fill( )
+    {
+        return fullQueue( ) ;
+    }
+}
@@ -0,0 +1,124 @@
+package cop3530.jmh ;
+
+import java.io.IOException ;
+import java.io.PrintWriter ;
+import java.lang.reflect.Method ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.util.Random ;
+import java.util.concurrent.TimeUnit ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.TearDown ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+/**
+ * Times the suffix-sort pipeline of LongestSubstring on two random texts:
+ * suffixSort builds and sorts every suffix, and pipeline also computes the
+ * longest common prefixes and picks the largest. LongestSubstring is in the
+ * default package, so its methods are reached by reflection, looked up once
+ * in setup.
+ * @author Aqib Shah
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 , time = 2 )
+@Measurement( iterations = 5 , time = 2 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class LongestSubstringBench
+{
+    private static final int VOCABULARY = 2000 ;    //Distinct words used
+
+    @Param( { "1000" , "10000" , "100000" } )
+    private int words ;                             //Words in each file
+
+    private Path fileOne ;
+    private Path fileTwo ;
+    private String text ;                           //Both files, compiled
+    private int boundary ;                          //Where file two begins
+    private Method sortedSuffixes ;
+    private Method longestPrefixes ;
+
+    @Setup( Level.Trial )
+    public void makeText( ) throws Exception
+    {
+        Random rand = new Random( 42 ) ;
+        String [ ] vocabulary = new String[ VOCABULARY ] ;
+        for ( int i = 0 ; i < VOCABULARY ; i++ )
+        {
+            char [ ] letters = new char[ 2 + rand.nextInt( 8 ) ] ;
+            for ( int j = 0 ; j < letters.length ; j++ )
+                letters[ j ] = ( char ) ( 'a' + rand.nextInt( 26 ) ) ;
+            vocabulary[ i ] = new String( letters ) ;
+        }
+        fileOne = writeText( vocabulary , rand ) ;
+        fileTwo = writeText( vocabulary , rand ) ;
+
+        Class < ? > ls = Class.forName( "LongestSubstring" ) ;
+        text = ( String ) ls.getMethod( "compileFiles" , String.class ,
+                String.class ).invoke( null , fileOne.toString( ) ,
+                                       fileTwo.toString( ) ) ;
+        boundary = text.indexOf( '@' ) ;
+        sortedSuffixes = ls.getMethod( "sortedSuffixes" , String.class ) ;
+        longestPrefixes = ls.getMethod( "longestPrefixes" ,
+                sortedSuffixes.getReturnType( ) , int.class ) ;
+    }
+
+    @TearDown( Level.Trial )
+    public void deleteFiles( ) throws IOException
+    {
+        Files.deleteIfExists( fileOne ) ;
+        Files.deleteIfExists( fileTwo ) ;
+    }
+
+    /**
+     * Writes a file of random words, ten to a line.
+     * @param vocabulary the words to pick from.
+     * @param rand the source of picks.
+     * @return the file written.
+     * @throws IOException if the file cannot be written.
+     */
+    private Path writeText( String [ ] vocabulary , Random rand )
+            throws IOException
+    {
+        Path p = Files.createTempFile( "text" , ".txt" ) ;
+        try ( PrintWriter out = new PrintWriter( Files.newBufferedWriter( p ) ) )
+        {
+            for ( int i = 0 ; i < words ; i++ )
+            {
+                out.print( vocabulary[ rand.nextInt( VOCABULARY ) ] ) ;
+                out.print( i % 10 == 9 ? '\n' : ' ' ) ;
+            }
+        }
+        return p ;
+    }
+
+    @Benchmark
+    public Object suffixSort( ) throws Exception
+    {
+        return sortedSuffixes.invoke( null , text ) ;
+    }
+
+    @Benchmark
+    public int pipeline( ) throws Exception
+    {
+        Object suffixes = sortedSuffixes.invoke( null , text ) ;
+        int [ ] lcp = ( int [ ] ) longestPrefixes.invoke( null , suffixes ,
+                                                         boundary ) ;
+        int maxIndex = 0 ;
+        for ( int i = 1 ; i < lcp.length ; i++ )
+            if ( lcp[ i ] > lcp[ maxIndex ] )
+                maxIndex = i ;
+        return maxIndex ;
+    }
+}
@@ -0,0 +1,128 @@
+package cop3530.jmh ;
+
+import cop3530.HashFunction ;
+import cop3530.MyHashMap ;
+import java.util.Random ;
+import java.util.concurrent.TimeUnit ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+/**
+ * Times MyHashMap.put, get and remove on maps of several sizes. put, get and
+ * removeAndPut work on a full map and leave it full, so they measure one
+ * operation at a steady size; fill builds the whole map from empty,
+ * rehashes included.
+ * @author Aqib Shah
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3 , time = 1 )
+@Measurement( iterations = 5 , time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class MyHashMapBench
+{
+    private static final HashFunction < Integer > H1 = x ->
+    {
+        int h = x * 0x9E3779B1 ;
+        return h ^ ( h >>> 16 ) ;
+    } ;
+
+    private static final HashFunction < Integer > H2 = x ->
+    {
+        int h = x * 0x85EBCA6B ;
+        return h ^ ( h >>> 13 ) ;
+    } ;
+
+    @Param( { "1000" , "100000" , "1000000" } )
+    private int size ;                              //Keys in the map
+
+    private Integer [ ] keys ;                      //Distinct, shuffled
+    private MyHashMap < Integer , Integer > map ;   //Holds every key
+    private int next ;                              //Next key to use
+
+    @Setup( Level.Trial )
+    public void makeKeys( )
+    {
+        Random rand = new Random( 42 ) ;
+        keys = new Integer[ size ] ;
+        for ( int i = 0 ; i < size ; i++ )
+            keys[ i ] = i * 7 + 3 ;                 //Distinct, not 0 to size
+        for ( int i = size - 1 ; i > 0 ; i-- )
+        {
+            int j = rand.nextInt( i + 1 ) ;
+            Integer temp = keys[ i ] ;
+            keys[ i ] = keys[ j ] ;
+            keys[ j ] = temp ;
+        }
+    }
+
+    @Setup( Level.Iteration )
+    public void fillMap( )
+    {
+        map = fullMap( ) ;
+        next = 0 ;
+    }
+
+    /**
+     * Builds a map holding every key.
+     * @return the map.
+     */
+    private MyHashMap < Integer , Integer > fullMap( )
+    {
+        MyHashMap < Integer , Integer > m = new MyHashMap<>( H1 , H2 ) ;
+        for ( Integer k : keys )
+            m.put( k , k ) ;
+        return m ;
+    }
+
+    /**
+     * Picks the next key, going round all of them in shuffled order.
+     * @return the key.
+     */
+    private Integer nextKey( )
+    {
+        Integer k = keys[ next ] ;
+        if ( ++next == size )
+            next = 0 ;
+        return k ;
+    }
+
+    @Benchmark
+    public Integer get( )
+    {
+        return map.get( nextKey( ) ) ;
+    }
+
+    @Benchmark
+    public Integer put( )
+    {
+        Integer k = nextKey( ) ;
+        return map.put( k , k ) ;                   //Replaces; size stays
+    }
+
+    @Benchmark
+    public Integer removeAndPut( )
+    {
+        Integer k = nextKey( ) ;
+        map.remove( k ) ;
+        return map.put( k , k ) ;
+    }
+
+    @Benchmark
+    @OutputTimeUnit( TimeUnit.MICROSECONDS )
+    public MyHashMap < Integer , Integer > fill( )
+    {
+        return fullMap( ) ;
+    }
+}
@@ -0,0 +1,102 @@
+package cop3530.jmh ;
+
+import java.io.IOException ;
+import java.io.PrintWriter ;
+import java.lang.reflect.Method ;
+import java.nio.file.Files ;
+import java.nio.file.Path ;
+import java.util.Random ;
+import java.util.concurrent.TimeUnit ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.TearDown ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+/**
+ * Times PQ.computeShortestPath and PQ.computeBottleNeckPath on random square
+ * grids. PQ is in the default package, which a benchmark cannot import, so
+ * it is reached by reflection; the lookups are done once in setup, and one
+ * Method.invoke costs nothing next to a whole search.
+ * @author Aqib Shah
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 , time = 2 )
+@Measurement( iterations = 5 , time = 2 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class ShortestPathBench
+{
+    @Param( { "100" , "300" , "1000" } )
+    private int size ;                              //Rows and columns
+
+    private Path file ;                             //The grid
+    private Object grid ;                           //A PQ
+    private Object start ;                          //Its UPPER_LEFT
+    private Method shortestPath ;
+    private Method bottleNeckPath ;
+
+    @Setup( Level.Trial )
+    public void makeGrid( ) throws Exception
+    {
+        file = writeGrid( size , new Random( 42 ) ) ;
+        Class < ? > pq = Class.forName( "PQ" ) ;
+        grid = pq.getConstructor( String.class )
+                 .newInstance( file.toString( ) ) ;
+        start = pq.getField( "UPPER_LEFT" ).get( grid ) ;
+        shortestPath = pq.getMethod( "computeShortestPath" ,
+                                     start.getClass( ) ) ;
+        bottleNeckPath = pq.getMethod( "computeBottleNeckPath" ,
+                                       start.getClass( ) ) ;
+    }
+
+    @TearDown( Level.Trial )
+    public void deleteGrid( ) throws IOException
+    {
+        Files.deleteIfExists( file ) ;
+    }
+
+    /**
+     * Writes a grid of random costs, 1 to 9, in the format PQ reads.
+     * @param n the number of rows and columns.
+     * @param rand the source of costs.
+     * @return the file written.
+     * @throws IOException if the file cannot be written.
+     */
+    private static Path writeGrid( int n , Random rand ) throws IOException
+    {
+        Path p = Files.createTempFile( "grid" , ".txt" ) ;
+        try ( PrintWriter out = new PrintWriter( Files.newBufferedWriter( p ) ) )
+        {
+            for ( int r = 0 ; r < n ; r++ )
+            {
+                StringBuilder line = new StringBuilder( ) ;
+                for ( int c = 0 ; c < n ; c++ )
+                    line.append( 1 + rand.nextInt( 9 ) ).append( ' ' ) ;
+                out.println( line.toString( ).trim( ) ) ;
+            }
+        }
+        return p ;
+    }
+
+    @Benchmark
+    public void computeShortestPath( ) throws Exception
+    {
+        shortestPath.invoke( grid , start ) ;
+    }
+
+    @Benchmark
+    public void computeBottleNeckPath( ) throws Exception
+    {
+        bottleNeckPath.invoke( grid , start ) ;
+    }
+}
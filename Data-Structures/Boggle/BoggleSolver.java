@@ -137,7 +137,8 @@ class Boggle
     private String [] dictionarys = new String [ 1000 ] ;
     
     /**
-     * Creates a Boggle board given a proper text file. 
+     * Creates a Boggle board given a proper text file, using the dictionary
+     * dict.txt.
      * @param file the file containing the letters.
      * @throws FileNotFoundException text file not found.
      * @throws IncorrectPuzzleFormatException text file not proper format.
@@ -146,6 +147,21 @@ class Boggle
     public Boggle( String file ) 
             throws FileNotFoundException, IncorrectPuzzleFormatException, 
             DictionaryException
+    {
+        this( file , "dict.txt" ) ;
+    }
+    
+    /**
+     * Creates a Boggle board given a proper text file and a dictionary file.
+     * @param file the file containing the letters.
+     * @param dictionary the file containing the words.
+     * @throws FileNotFoundException text file not found.
+     * @throws IncorrectPuzzleFormatException text file not proper format.
+     * @throws DictionaryException dictionary not found.
+     */
+    public Boggle( String file , String dictionary ) 
+            throws FileNotFoundException, IncorrectPuzzleFormatException, 
+            DictionaryException
     {
         ArrayList< String > puzzle = new ArrayList<>() ;
         Scanner fileReader = new Scanner ( new File ( file ) ) ;
@@ -188,7 +204,7 @@ class Boggle
         int words = 0 ; 
         try
         {
-            Scanner dictScanner = new Scanner ( new File ( "dict.txt" ) ) ;
+            Scanner dictScanner = new Scanner ( new File ( dictionary ) ) ;
             
             while ( dictScanner.hasNext() )
             {
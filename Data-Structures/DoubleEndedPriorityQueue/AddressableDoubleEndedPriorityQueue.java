@@ -0,0 +1,404 @@
+package cop3530;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Represents a Double Ended Priority Queue whose values can be removed or
+ * given a new key after they are added. insert returns a Handle for the
+ * value. Every Handle sits in two binary heaps held in arrays, a min-heap and
+ * a max-heap, and remembers its index in both, so any value can be found,
+ * moved or taken out of both heaps in O( log n ). A cancelled value is
+ * reclaimed right away instead of lingering until it reaches an end.
+ * @author Aqib Shah
+ * @param <AnyType> Generic type.
+ */
+public class AddressableDoubleEndedPriorityQueue< AnyType > implements
+        DoubleEndedPriorityQueue < AnyType >
+{
+
+    //--------------------------------------------------------------------------
+    /**
+     * Refers to one value in the queue.
+     * @param <AnyType>
+     */
+    public static final class Handle < AnyType >
+    {
+        private AnyType data ;                      //Value
+        private int minIndex = -1 ;                 //Place in minHeap
+        private int maxIndex = -1 ;                 //Place in maxHeap
+
+        private Handle( AnyType d )
+        {
+            data = d ;
+        }
+
+        /**
+         * @return the value.
+         */
+        public AnyType getValue( )
+        {
+            return data ;
+        }
+    }
+    //--------------------------------------------------------------------------
+
+    private static final int DEFAULT_CAPACITY = 16 ;
+
+    private Comparator < ? super AnyType > cmp ;        //Comparator
+    private Handle < AnyType > [ ] minHeap ;            //Smallest on top
+    private Handle < AnyType > [ ] maxHeap ;            //Largest on top
+    private int currentSize ;                           //Number of items
+
+    /**
+     * Constructs an empty queue with a null comparator.
+     */
+    public AddressableDoubleEndedPriorityQueue ( )
+    {
+        this ( null ) ;
+    }
+
+    /**
+     * Constructs an empty queue with the given comparator.
+     * @param c the comparator.
+     */
+    public AddressableDoubleEndedPriorityQueue (
+            Comparator < ? super AnyType > c )
+    {
+        cmp = c ;
+        minHeap = new Handle[ DEFAULT_CAPACITY ] ;
+        maxHeap = new Handle[ DEFAULT_CAPACITY ] ;
+    }
+
+    /**
+     * Compares two values.
+     * @param a first value.
+     * @param b second value.
+     * @return whether one is larger than the other, or vice-versa, or equal.
+     */
+    private int myCompare( AnyType a , AnyType b )
+    {
+        if ( cmp == null )
+            return ( ( Comparable ) a ).compareTo ( b ) ;
+        else
+            return cmp.compare( a ,  b ) ;
+    }
+
+    /**
+     * Clears the contents of the queue. Handles of the old values become
+     * invalid.
+     */
+    public void makeEmpty( )
+    {
+        for ( int i = 0 ; i < currentSize ; i++ )
+        {
+            minHeap[ i ].minIndex = minHeap[ i ].maxIndex = -1 ;
+            minHeap[ i ] = maxHeap[ i ] = null ;
+        }
+        currentSize = 0 ;
+    }
+
+    /**
+     * Adds a value to the queue.
+     * @param x value to be added.
+     */
+    public void add ( AnyType x )
+    {
+        insert( x ) ;
+    }
+
+    /**
+     * Adds a value to the queue and returns a Handle for it.
+     * @param x value to be added.
+     * @return the Handle, for remove and the key changes.
+     */
+    public Handle < AnyType > insert( AnyType x )
+    {
+        if ( currentSize == minHeap.length )
+        {
+            minHeap = Arrays.copyOf( minHeap , minHeap.length * 2 ) ;
+            maxHeap = Arrays.copyOf( maxHeap , maxHeap.length * 2 ) ;
+        }
+        Handle < AnyType > h = new Handle<>( x ) ;
+        int hole = currentSize++ ;
+        place( h , hole , true ) ;
+        place( h , hole , false ) ;
+        siftUp( hole , true ) ;
+        siftUp( hole , false ) ;
+        return h ;
+    }
+
+    /**
+     * Deletes the minimum value.
+     * @return the minimum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType deleteMin( ) throws UnderflowException
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        Handle < AnyType > h = minHeap[ 0 ] ;
+        unlink( h ) ;
+        return h.data ;
+    }
+
+    /**
+     * Deletes the maximum value.
+     * @return the maximum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType deleteMax( ) throws UnderflowException
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        Handle < AnyType > h = maxHeap[ 0 ] ;
+        unlink( h ) ;
+        return h.data ;
+    }
+
+    /**
+     * Removes the value a Handle refers to, wherever it is in the queue.
+     * @param h the Handle.
+     * @return false if the value had already left the queue.
+     */
+    public boolean remove( Handle < AnyType > h )
+    {
+        if ( !contains( h ) )
+            return false ;
+        unlink( h ) ;
+        return true ;
+    }
+
+    /**
+     * Gives a value a new key, such as a new deadline, and moves it to its
+     * new place in both heaps.
+     * @param h the Handle.
+     * @param x the new value.
+     * @throws IllegalArgumentException if h is not in this queue.
+     */
+    public void changeKey( Handle < AnyType > h , AnyType x )
+    {
+        if ( !contains( h ) )
+            throw new IllegalArgumentException( "Handle not in this queue" ) ;
+        h.data = x ;
+        fix( h.minIndex , true ) ;
+        fix( h.maxIndex , false ) ;
+    }
+
+    /**
+     * Gives a value a larger (or equal) key.
+     * @param h the Handle.
+     * @param x the new value.
+     * @throws IllegalArgumentException if x is smaller than the old value
+     * or h is not in this queue.
+     */
+    public void increaseKey( Handle < AnyType > h , AnyType x )
+    {
+        if ( myCompare( x , h.data ) < 0 )
+            throw new IllegalArgumentException( "New key is smaller" ) ;
+        changeKey( h , x ) ;
+    }
+
+    /**
+     * Gives a value a smaller (or equal) key.
+     * @param h the Handle.
+     * @param x the new value.
+     * @throws IllegalArgumentException if x is larger than the old value
+     * or h is not in this queue.
+     */
+    public void decreaseKey( Handle < AnyType > h , AnyType x )
+    {
+        if ( myCompare( x , h.data ) > 0 )
+            throw new IllegalArgumentException( "New key is larger" ) ;
+        changeKey( h , x ) ;
+    }
+
+    /**
+     * Determines whether a Handle refers to a value in this queue.
+     * @param h the Handle.
+     * @return true if the value is still in this queue.
+     */
+    public boolean contains( Handle < AnyType > h )
+    {
+        return h.minIndex >= 0 && h.minIndex < currentSize
+                && minHeap[ h.minIndex ] == h ;
+    }
+
+    /**
+     * Finds the value that is the minimum.
+     * @return the minimum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType findMin( )
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return minHeap[ 0 ].data ;
+    }
+
+    /**
+     * Finds the value that is the maximum.
+     * @return the maximum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType findMax( )
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return maxHeap[ 0 ].data ;
+    }
+
+    /**
+     * Returns the number of values in the queue.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return currentSize ;
+    }
+
+    /**
+     * Checks whether the queue is empty.
+     * @return whether queue is empty or not.
+     */
+    public boolean isEmpty( )
+    {
+        return currentSize == 0 ;
+    }
+
+    /**
+     * Provides a string representation of the queue, in sorted order.
+     * @return a a printable string.
+     */
+    public String toString()
+    {
+        Object [ ] sorted = new Object[ currentSize ] ;
+        for ( int i = 0 ; i < currentSize ; i++ )
+            sorted[ i ] = minHeap[ i ].data ;
+        Arrays.sort( sorted , ( a , b ) -> myCompare( ( AnyType ) a ,
+                                                     ( AnyType ) b ) ) ;
+        StringBuilder sb = new StringBuilder() ;
+        sb.append( "[  " ) ;
+        for ( Object x : sorted )
+        {
+            sb.append( x ) ;
+            sb.append( ", " ) ;
+        }
+        sb.setLength( sb.length() - 2 ) ;
+        sb.append( "  ]" ) ;
+        return new String ( sb ) ;
+    }
+
+    /**
+     * Takes a Handle out of both heaps: in each, the last Handle fills its
+     * place and is moved up or down as needed.
+     * @param h the Handle, which must be in this queue.
+     */
+    private void unlink( Handle < AnyType > h )
+    {
+        int last = --currentSize ;
+        int minIndex = h.minIndex ;
+        int maxIndex = h.maxIndex ;
+        place( minHeap[ last ] , minIndex , true ) ;
+        place( maxHeap[ last ] , maxIndex , false ) ;
+        minHeap[ last ] = maxHeap[ last ] = null ;
+        if ( minIndex < last )
+            fix( minIndex , true ) ;
+        if ( maxIndex < last )
+            fix( maxIndex , false ) ;
+        h.minIndex = h.maxIndex = -1 ;
+    }
+
+    /**
+     * Tests whether one value belongs above another in one of the heaps.
+     * @param a one value.
+     * @param b the other value.
+     * @param min true for the min-heap, false for the max-heap.
+     * @return true if a is smaller (min-heap) or larger (max-heap) than b.
+     */
+    private boolean above( AnyType a , AnyType b , boolean min )
+    {
+        int compResult = myCompare( a , b ) ;
+        return min ? compResult < 0 : compResult > 0 ;
+    }
+
+    /**
+     * Puts a Handle at an index of one heap and records the index in it.
+     * @param h the Handle.
+     * @param i the index.
+     * @param min true for the min-heap, false for the max-heap.
+     */
+    private void place( Handle < AnyType > h , int i , boolean min )
+    {
+        if ( min )
+        {
+            minHeap[ i ] = h ;
+            h.minIndex = i ;
+        }
+        else
+        {
+            maxHeap[ i ] = h ;
+            h.maxIndex = i ;
+        }
+    }
+
+    /**
+     * Moves the Handle at an index up or down one heap, whichever its value
+     * calls for.
+     * @param i the index.
+     * @param min true for the min-heap, false for the max-heap.
+     */
+    private void fix( int i , boolean min )
+    {
+        Handle < AnyType > [ ] heap = min ? minHeap : maxHeap ;
+        if ( i > 0 && above( heap[ i ].data , heap[ ( i - 1 ) / 2 ].data ,
+                             min ) )
+            siftUp( i , min ) ;
+        else
+            siftDown( i , min ) ;
+    }
+
+    /**
+     * Moves the Handle at an index up one heap while it belongs above its
+     * parent.
+     * @param hole the index.
+     * @param min true for the min-heap, false for the max-heap.
+     */
+    private void siftUp( int hole , boolean min )
+    {
+        Handle < AnyType > [ ] heap = min ? minHeap : maxHeap ;
+        Handle < AnyType > h = heap[ hole ] ;
+        while ( hole > 0 && above( h.data , heap[ ( hole - 1 ) / 2 ].data ,
+                                   min ) )
+        {
+            place( heap[ ( hole - 1 ) / 2 ] , hole , min ) ;
+            hole = ( hole - 1 ) / 2 ;
+        }
+        place( h , hole , min ) ;
+    }
+
+    /**
+     * Moves the Handle at an index down one heap while a child belongs
+     * above it.
+     * @param hole the index.
+     * @param min true for the min-heap, false for the max-heap.
+     */
+    private void siftDown( int hole , boolean min )
+    {
+        Handle < AnyType > [ ] heap = min ? minHeap : maxHeap ;
+        Handle < AnyType > h = heap[ hole ] ;
+        int child ;
+        for ( ; hole * 2 + 1 < currentSize ; hole = child )
+        {
+            child = hole * 2 + 1 ;
+            if ( child + 1 < currentSize
+                    && above( heap[ child + 1 ].data , heap[ child ].data ,
+                              min ) )
+                child++ ;
+            if ( !above( heap[ child ].data , h.data , min ) )
+                break ;
+            place( heap[ child ] , hole , min ) ;
+        }
+        place( h , hole , min ) ;
+    }
+}
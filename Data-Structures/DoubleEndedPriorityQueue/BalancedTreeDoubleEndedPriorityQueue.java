@@ -0,0 +1,502 @@
+package cop3530;
+
+import java.util.Comparator;
+
+/**
+ * Represents a Double Ended Priority Queue as a red-black tree. Like
+ * TreeDoubleEndedPriorityQueue, equal values share one tree node through a
+ * list of duplicates, but the tree stays balanced for any input order, every
+ * operation is a loop rather than a recursion, and the nodes holding the
+ * minimum and maximum are kept at hand so findMin and findMax are O( 1 ).
+ * @author Aqib Shah
+ * @param <AnyType> Generic type.
+ */
+public class BalancedTreeDoubleEndedPriorityQueue< AnyType > implements
+        DoubleEndedPriorityQueue < AnyType >
+{
+
+    //--------------------------------------------------------------------------
+    /**
+     * Represents individual nodes on the tree.
+     * @param <AnyType>
+     */
+    private static class Node < AnyType >
+    {
+        private Node < AnyType > left ;             //Left child
+        private Node < AnyType > right ;            //Right child
+        private Node < AnyType > parent ;           //Parent
+        private ListNode < AnyType > items ;        //Duplicates
+        private boolean red ;                       //Color
+
+        /**
+         * A linked-list representation of duplicate values on the tree.
+         * @param <AnyType>
+         */
+        private static class ListNode < AnyType >
+        {
+            private AnyType data ;                  //Value
+            private ListNode < AnyType > next ;     //Pointer to next duplicate
+
+            public ListNode( AnyType d , ListNode < AnyType > n )
+            {
+                data = d ;                          //Initialize instance var's
+                next = n ;
+            }
+        }
+
+        /**
+         * Constructs a red node with an initial value.
+         * @param data value of the node.
+         * @param nil the tree's sentinel, for both children.
+         * @param p the parent.
+         */
+        public Node ( AnyType data , Node < AnyType > nil , Node < AnyType > p )
+        {
+            left = right = nil ;
+            parent = p ;
+            items = new ListNode< AnyType > ( data , null ) ;
+            red = true ;
+        }
+
+        /**
+         * Constructs the black sentinel that stands for every empty subtree.
+         */
+        public Node ( )
+        {
+            red = false ;
+        }
+    }
+   //---------------------------------------------------------------------------
+
+    private Comparator < ? super AnyType > cmp ;        //Comparator
+    private final Node < AnyType > nil = new Node<>( ) ;  //Empty subtree
+    private Node < AnyType > root ;                     //Root node
+    private Node < AnyType > min ;                      //Left-most node
+    private Node < AnyType > max ;                      //Right-most node
+    private int theSize ;                               //Number of values
+
+    /**
+     * Constructs an empty tree with a null comparator.
+     */
+    public BalancedTreeDoubleEndedPriorityQueue ( )
+    {
+        this ( null ) ;
+    }
+
+    /**
+     * Constructs an empty tree with the given comparator.
+     * @param c the comparator.
+     */
+    public BalancedTreeDoubleEndedPriorityQueue (
+            Comparator < ? super AnyType > c )
+    {
+        cmp = c ;
+        makeEmpty( ) ;
+    }
+
+    /**
+     * Compares two values.
+     * @param a first value.
+     * @param b second value.
+     * @return whether one is larger than the other, or vice-versa, or equal.
+     */
+    private int myCompare( AnyType a , AnyType b )
+    {
+        if ( cmp == null )
+            return ( ( Comparable ) a ).compareTo ( b ) ;
+        else
+            return cmp.compare( a ,  b ) ;
+    }
+
+    /**
+     * Clears the contents of a tree.
+     */
+    public void makeEmpty( )
+    {
+        root = min = max = nil ;
+        theSize = 0 ;
+    }
+
+    /**
+     * Adds a value to the tree. A value equal to one already present joins
+     * that node's duplicates; otherwise a new red leaf is added and the tree
+     * is recolored and rotated back into balance.
+     * @param x value to be added.
+     */
+    public void add ( AnyType x )
+    {
+        Node < AnyType > parent = nil ;
+        Node < AnyType > t = root ;
+        boolean leftMost = true ;                   //Went only left so far
+        boolean rightMost = true ;                  //Went only right so far
+        int compResult = 0 ;
+        theSize++ ;
+        while ( t != nil )
+        {
+            parent = t ;
+            compResult = myCompare( x , t.items.data ) ;
+            if ( compResult < 0 )
+            {
+                t = t.left ;
+                rightMost = false ;
+            }
+            else if ( compResult > 0 )
+            {
+                t = t.right ;
+                leftMost = false ;
+            }
+            else                                    //Duplicate
+            {
+                t.items = new Node.ListNode<>( x , t.items ) ;
+                return ;
+            }
+        }
+
+        Node < AnyType > z = new Node<>( x , nil , parent ) ;
+        if ( parent == nil )
+            root = z ;
+        else if ( compResult < 0 )
+            parent.left = z ;
+        else
+            parent.right = z ;
+        if ( leftMost )
+            min = z ;
+        if ( rightMost )
+            max = z ;
+        insertFixup( z ) ;
+    }
+
+    /**
+     * Deletes one copy of the minimum.
+     * @return the minimum value.
+     * @throws UnderflowException if called for an empty tree.
+     */
+    public AnyType deleteMin( ) throws UnderflowException
+    {
+        if ( root == nil )
+            throw new UnderflowException( ) ;
+        theSize-- ;
+        Node < AnyType > z = min ;
+        AnyType x = z.items.data ;
+        if ( z.items.next != null )                 //More than one copy
+        {
+            z.items = z.items.next ;
+            return x ;
+        }
+        //The minimum has no left child, so the next smallest is its right
+        //child (a lone red leaf, if any) or else its parent.
+        min = ( z.right != nil ) ? z.right : z.parent ;
+        if ( z == max )
+            max = z.parent ;
+        removeNode( z ) ;
+        return x ;
+    }
+
+    /**
+     * Deletes one copy of the maximum.
+     * @return the maximum value.
+     * @throws UnderflowException if called for an empty tree.
+     */
+    public AnyType deleteMax( ) throws UnderflowException
+    {
+        if ( root == nil )
+            throw new UnderflowException( ) ;
+        theSize-- ;
+        Node < AnyType > z = max ;
+        AnyType x = z.items.data ;
+        if ( z.items.next != null )                 //More than one copy
+        {
+            z.items = z.items.next ;
+            return x ;
+        }
+        max = ( z.left != nil ) ? z.left : z.parent ;
+        if ( z == min )
+            min = z.parent ;
+        removeNode( z ) ;
+        return x ;
+    }
+
+    /**
+     * Finds the value that is the minimum.
+     * @return the minimum value.
+     * @throws UnderflowException if called for an empty tree.
+     */
+    public AnyType findMin( )
+    {
+        if ( root == nil )
+            throw new UnderflowException( ) ;
+        return min.items.data ;
+    }
+
+    /**
+     * Finds the value that is the maximum.
+     * @return the maximum value.
+     * @throws UnderflowException if called for an empty tree.
+     */
+    public AnyType findMax( )
+    {
+        if ( root == nil )
+            throw new UnderflowException( ) ;
+        return max.items.data ;
+    }
+
+    /**
+     * Returns the number of values in the tree, duplicates included.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return theSize ;
+    }
+
+    /**
+     * Checks whether the tree is empty.
+     * @return whether tree is empty or not.
+     */
+    public boolean isEmpty( )
+    {
+        return root == nil ;
+    }
+
+    /**
+     * Provides a string representation of the tree, walking from the minimum
+     * by successors.
+     * @return a a printable string.
+     */
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder() ;
+        sb.append( "[  " ) ;
+        for ( Node < AnyType > t = min ; t != nil ; t = successor( t ) )
+            for ( Node.ListNode < AnyType > temp = t.items ; temp != null ;
+                  temp = temp.next )
+            {
+                sb.append( temp.data ) ;
+                sb.append( ", " ) ;
+            }
+        sb.setLength( sb.length() - 2 ) ;
+        sb.append( "  ]" ) ;
+        return new String ( sb ) ;
+    }
+
+    /**
+     * Finds the node that follows a given node in sorted order.
+     * @param t the node.
+     * @return the next node, or nil if t is the maximum.
+     */
+    private Node < AnyType > successor( Node < AnyType > t )
+    {
+        if ( t.right != nil )
+        {
+            t = t.right ;
+            while ( t.left != nil )
+                t = t.left ;
+            return t ;
+        }
+        Node < AnyType > p = t.parent ;
+        while ( p != nil && t == p.right )
+        {
+            t = p ;
+            p = p.parent ;
+        }
+        return p ;
+    }
+
+    /**
+     * Restores the red-black rules after a red leaf is added: no red node
+     * may have a red parent.
+     * @param z the new node.
+     */
+    private void insertFixup( Node < AnyType > z )
+    {
+        while ( z.parent.red )
+        {
+            Node < AnyType > grandparent = z.parent.parent ;
+            if ( z.parent == grandparent.left )
+            {
+                Node < AnyType > uncle = grandparent.right ;
+                if ( uncle.red )                    //Recolor and move up
+                {
+                    z.parent.red = uncle.red = false ;
+                    grandparent.red = true ;
+                    z = grandparent ;
+                }
+                else
+                {
+                    if ( z == z.parent.right )      //Zig-zag: make it zig-zig
+                    {
+                        z = z.parent ;
+                        rotateLeft( z ) ;
+                    }
+                    z.parent.red = false ;
+                    grandparent.red = true ;
+                    rotateRight( grandparent ) ;
+                }
+            }
+            else                                    //Mirror image
+            {
+                Node < AnyType > uncle = grandparent.left ;
+                if ( uncle.red )
+                {
+                    z.parent.red = uncle.red = false ;
+                    grandparent.red = true ;
+                    z = grandparent ;
+                }
+                else
+                {
+                    if ( z == z.parent.left )
+                    {
+                        z = z.parent ;
+                        rotateRight( z ) ;
+                    }
+                    z.parent.red = false ;
+                    grandparent.red = true ;
+                    rotateLeft( grandparent ) ;
+                }
+            }
+        }
+        root.red = false ;
+    }
+
+    /**
+     * Removes a node with at most one child by putting the child in its
+     * place, then restores the red-black rules if a black node was lost.
+     * @param z the node; the minimum or the maximum.
+     */
+    private void removeNode( Node < AnyType > z )
+    {
+        Node < AnyType > x = ( z.left != nil ) ? z.left : z.right ;
+        x.parent = z.parent ;                       //Even if x is nil
+        if ( z.parent == nil )
+            root = x ;
+        else if ( z == z.parent.left )
+            z.parent.left = x ;
+        else
+            z.parent.right = x ;
+        if ( !z.red )
+            deleteFixup( x ) ;
+        nil.parent = null ;
+    }
+
+    /**
+     * Restores the red-black rules after a black node is removed: x carries
+     * an extra black that is pushed up the tree or absorbed by recoloring
+     * and rotation.
+     * @param x the node that took the removed node's place.
+     */
+    private void deleteFixup( Node < AnyType > x )
+    {
+        while ( x != root && !x.red )
+        {
+            if ( x == x.parent.left )
+            {
+                Node < AnyType > sibling = x.parent.right ;
+                if ( sibling.red )
+                {
+                    sibling.red = false ;
+                    x.parent.red = true ;
+                    rotateLeft( x.parent ) ;
+                    sibling = x.parent.right ;
+                }
+                if ( !sibling.left.red && !sibling.right.red )
+                {
+                    sibling.red = true ;
+                    x = x.parent ;
+                }
+                else
+                {
+                    if ( !sibling.right.red )
+                    {
+                        sibling.left.red = false ;
+                        sibling.red = true ;
+                        rotateRight( sibling ) ;
+                        sibling = x.parent.right ;
+                    }
+                    sibling.red = x.parent.red ;
+                    x.parent.red = false ;
+                    sibling.right.red = false ;
+                    rotateLeft( x.parent ) ;
+                    x = root ;
+                }
+            }
+            else                                    //Mirror image
+            {
+                Node < AnyType > sibling = x.parent.left ;
+                if ( sibling.red )
+                {
+                    sibling.red = false ;
+                    x.parent.red = true ;
+                    rotateRight( x.parent ) ;
+                    sibling = x.parent.left ;
+                }
+                if ( !sibling.left.red && !sibling.right.red )
+                {
+                    sibling.red = true ;
+                    x = x.parent ;
+                }
+                else
+                {
+                    if ( !sibling.left.red )
+                    {
+                        sibling.right.red = false ;
+                        sibling.red = true ;
+                        rotateLeft( sibling ) ;
+                        sibling = x.parent.left ;
+                    }
+                    sibling.red = x.parent.red ;
+                    x.parent.red = false ;
+                    sibling.left.red = false ;
+                    rotateRight( x.parent ) ;
+                    x = root ;
+                }
+            }
+        }
+        x.red = false ;
+    }
+
+    /**
+     * Rotates a node down to the left; its right child takes its place.
+     * @param x the node.
+     */
+    private void rotateLeft( Node < AnyType > x )
+    {
+        Node < AnyType > y = x.right ;
+        x.right = y.left ;
+        if ( y.left != nil )
+            y.left.parent = x ;
+        replaceChild( x , y ) ;
+        y.left = x ;
+        x.parent = y ;
+    }
+
+    /**
+     * Rotates a node down to the right; its left child takes its place.
+     * @param x the node.
+     */
+    private void rotateRight( Node < AnyType > x )
+    {
+        Node < AnyType > y = x.left ;
+        x.left = y.right ;
+        if ( y.right != nil )
+            y.right.parent = x ;
+        replaceChild( x , y ) ;
+        y.right = x ;
+        x.parent = y ;
+    }
+
+    /**
+     * Makes y the child of x's parent in x's place.
+     * @param x the node being replaced.
+     * @param y the node replacing it.
+     */
+    private void replaceChild( Node < AnyType > x , Node < AnyType > y )
+    {
+        y.parent = x.parent ;
+        if ( x.parent == nil )
+            root = y ;
+        else if ( x == x.parent.left )
+            x.parent.left = y ;
+        else
+            x.parent.right = y ;
+    }
+}
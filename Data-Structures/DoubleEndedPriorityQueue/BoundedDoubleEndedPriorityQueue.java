@@ -0,0 +1,361 @@
+package cop3530;
+
+import java.util.Comparator;
+
+/**
+ * Represents a Double Ended Priority Queue that holds at most a fixed number
+ * of values, for keeping the best K values out of a stream. It either keeps
+ * the largest values (top-K) or the smallest (bottom-K). Once it is full, a
+ * new value either is rejected or replaces the value at the opposite end in
+ * one O( log K ) step. The values are kept in a min-max heap, like
+ * HeapDoubleEndedPriorityQueue, in an array allocated once by the
+ * constructor, so offer never allocates and the queue never grows.
+ * @author Aqib Shah
+ * @param <AnyType> Generic type.
+ */
+public class BoundedDoubleEndedPriorityQueue< AnyType > implements
+        DoubleEndedPriorityQueue < AnyType >
+{
+    private Comparator < ? super AnyType > cmp ;        //Comparator
+    private final AnyType [ ] array ;                   //The heap
+    private final boolean keepLargest ;                 //Top-K or bottom-K
+    private int currentSize ;                           //Number of items
+
+    /**
+     * Constructs an empty queue with a null comparator.
+     * @param capacity the most values to hold.
+     * @param keepLargest true to keep the largest values and evict the
+     * smallest, false to keep the smallest and evict the largest.
+     */
+    public BoundedDoubleEndedPriorityQueue ( int capacity ,
+                                             boolean keepLargest )
+    {
+        this ( capacity , keepLargest , null ) ;
+    }
+
+    /**
+     * Constructs an empty queue with the given comparator.
+     * @param capacity the most values to hold.
+     * @param keepLargest true to keep the largest values and evict the
+     * smallest, false to keep the smallest and evict the largest.
+     * @param c the comparator.
+     */
+    public BoundedDoubleEndedPriorityQueue ( int capacity ,
+            boolean keepLargest , Comparator < ? super AnyType > c )
+    {
+        if ( capacity < 1 )
+            throw new IllegalArgumentException( "Capacity must be positive: "
+                                                + capacity ) ;
+        array = ( AnyType [ ] ) new Object[ capacity ] ;
+        this.keepLargest = keepLargest ;
+        cmp = c ;
+    }
+
+    /**
+     * Compares two values.
+     * @param a first value.
+     * @param b second value.
+     * @return whether one is larger than the other, or vice-versa, or equal.
+     */
+    private int myCompare( AnyType a , AnyType b )
+    {
+        if ( cmp == null )
+            return ( ( Comparable ) a ).compareTo ( b ) ;
+        else
+            return cmp.compare( a ,  b ) ;
+    }
+
+    /**
+     * Clears the contents of the queue. The array is kept.
+     */
+    public void makeEmpty( )
+    {
+        for ( int i = 0 ; i < currentSize ; i++ )
+            array[ i ] = null ;
+        currentSize = 0 ;
+    }
+
+    /**
+     * Adds a value to the queue, evicting a value if it is full. Same as
+     * offer, without the result.
+     * @param x value to be added.
+     */
+    public void add ( AnyType x )
+    {
+        offer( x ) ;
+    }
+
+    /**
+     * Offers a value to the queue. While there is room it is simply added.
+     * Once the queue is full, a value no better than the worst one kept is
+     * rejected; any other value takes the worst one's place.
+     * @param x value to be offered.
+     * @return the value evicted, x itself if it was rejected, or null if
+     * nothing had to leave.
+     */
+    public AnyType offer( AnyType x )
+    {
+        if ( currentSize < array.length )
+        {
+            array[ currentSize ] = x ;
+            bubbleUp( currentSize++ ) ;
+            return null ;
+        }
+
+        int worst = keepLargest ? 0 : maxIndex( ) ;
+        int compResult = myCompare( x , array[ worst ] ) ;
+        if ( keepLargest ? compResult <= 0 : compResult >= 0 )
+            return x ;                              //Rejected
+        AnyType evicted = array[ worst ] ;
+        array[ worst ] = x ;
+        if ( worst == 0 )
+            trickleDown( 0 , true ) ;
+        else
+        {
+            if ( myCompare( x , array[ 0 ] ) < 0 )  //New minimum
+                swap( worst , 0 ) ;
+            trickleDown( worst , false ) ;
+        }
+        return evicted ;
+    }
+
+    /**
+     * Deletes the minimum value, the root.
+     * @return the minimum value.
+     * @throws UnderflowException if called for an empty queue.
+     */
+    public AnyType deleteMin( ) throws UnderflowException
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return removeAt( 0 ) ;
+    }
+
+    /**
+     * Deletes the maximum value, the larger child of the root.
+     * @return the maximum value.
+     * @throws UnderflowException if called for an empty queue.
+     */
+    public AnyType deleteMax( ) throws UnderflowException
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return removeAt( maxIndex( ) ) ;
+    }
+
+    /**
+     * Finds the value that is the minimum.
+     * @return the minimum value.
+     * @throws UnderflowException if called for an empty queue.
+     */
+    public AnyType findMin( )
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return array[ 0 ] ;
+    }
+
+    /**
+     * Finds the value that is the maximum.
+     * @return the maximum value.
+     * @throws UnderflowException if called for an empty queue.
+     */
+    public AnyType findMax( )
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return array[ maxIndex( ) ] ;
+    }
+
+    /**
+     * Returns the number of values in the queue.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return currentSize ;
+    }
+
+    /**
+     * Returns the most values the queue can hold.
+     * @return the capacity.
+     */
+    public int capacity( )
+    {
+        return array.length ;
+    }
+
+    /**
+     * Checks whether the queue is empty.
+     * @return whether queue is empty or not.
+     */
+    public boolean isEmpty( )
+    {
+        return currentSize == 0 ;
+    }
+
+    /**
+     * Checks whether the queue is full, so that offer will evict or reject.
+     * @return whether queue is full or not.
+     */
+    public boolean isFull( )
+    {
+        return currentSize == array.length ;
+    }
+
+    /**
+     * Provides a string representation of the queue, in sorted order.
+     * @return a a printable string.
+     */
+    public String toString()
+    {
+        Object [ ] sorted = new Object[ currentSize ] ;
+        System.arraycopy( array , 0 , sorted , 0 , currentSize ) ;
+        java.util.Arrays.sort( sorted , ( a , b ) ->
+                myCompare( ( AnyType ) a , ( AnyType ) b ) ) ;
+        StringBuilder sb = new StringBuilder() ;
+        sb.append( "[  " ) ;
+        for ( Object x : sorted )
+        {
+            sb.append( x ) ;
+            sb.append( ", " ) ;
+        }
+        sb.setLength( sb.length() - 2 ) ;
+        sb.append( "  ]" ) ;
+        return new String ( sb ) ;
+    }
+
+    /**
+     * Finds where the maximum is: the root if it is alone, else the larger
+     * of its children.
+     * @return the index of the maximum.
+     */
+    private int maxIndex( )
+    {
+        if ( currentSize == 1 )
+            return 0 ;
+        if ( currentSize == 2 || myCompare( array[ 1 ] , array[ 2 ] ) >= 0 )
+            return 1 ;
+        return 2 ;
+    }
+
+    /**
+     * Removes the value at a given index, filling the gap with the last
+     * value and moving that value down to its place.
+     * @param i the index, either the minimum's or the maximum's.
+     * @return the value removed.
+     */
+    private AnyType removeAt( int i )
+    {
+        AnyType x = array[ i ] ;
+        array[ i ] = array[ --currentSize ] ;
+        array[ currentSize ] = null ;               //Let it be collected
+        if ( i < currentSize )
+            trickleDown( i , isMinLevel( i ) ) ;
+        return x ;
+    }
+
+    /**
+     * Determines whether an index is on a min (even) level.
+     * @param i the index.
+     * @return true for a min level, false for a max level.
+     */
+    private static boolean isMinLevel( int i )
+    {
+        return ( 31 - Integer.numberOfLeadingZeros( i + 1 ) ) % 2 == 0 ;
+    }
+
+    /**
+     * Tests whether a value should be above another on a level of the given
+     * kind.
+     * @param a one value.
+     * @param b the other value.
+     * @param min true for a min level, false for a max level.
+     * @return true if a is smaller (min) or larger (max) than b.
+     */
+    private boolean before( AnyType a , AnyType b , boolean min )
+    {
+        int compResult = myCompare( a , b ) ;
+        return min ? compResult < 0 : compResult > 0 ;
+    }
+
+    /**
+     * Moves a newly added value up to its place, as in
+     * HeapDoubleEndedPriorityQueue.
+     * @param i the index of the new value.
+     */
+    private void bubbleUp( int i )
+    {
+        if ( i == 0 )
+            return ;
+        int parent = ( i - 1 ) / 2 ;
+        boolean min = isMinLevel( i ) ;
+        if ( before( array[ parent ] , array[ i ] , min ) )
+        {
+            swap( i , parent ) ;
+            bubbleUp( parent , !min ) ;
+        }
+        else
+            bubbleUp( i , min ) ;
+    }
+
+    /**
+     * Moves a value up by grandparents while it is out of order with them.
+     * @param i the index of the value.
+     * @param min true on min levels, false on max levels.
+     */
+    private void bubbleUp( int i , boolean min )
+    {
+        while ( i >= 3 )                            //Has a grandparent
+        {
+            int grandparent = ( ( i - 1 ) / 2 - 1 ) / 2 ;
+            if ( !before( array[ i ] , array[ grandparent ] , min ) )
+                return ;
+            swap( i , grandparent ) ;
+            i = grandparent ;
+        }
+    }
+
+    /**
+     * Moves a value down two levels at a time, as in
+     * HeapDoubleEndedPriorityQueue.
+     * @param i the index of the value.
+     * @param min true on min levels, false on max levels.
+     */
+    private void trickleDown( int i , boolean min )
+    {
+        while ( 2 * i + 1 < currentSize )           //Has a child
+        {
+            int m = 2 * i + 1 ;                     //Most extreme descendant
+            if ( m + 1 < currentSize
+                    && before( array[ m + 1 ] , array[ m ] , min ) )
+                m = m + 1 ;
+            int end = Math.min( 4 * i + 7 , currentSize ) ;
+            for ( int c = 4 * i + 3 ; c < end ; c++ )   //Grandchildren
+                if ( before( array[ c ] , array[ m ] , min ) )
+                    m = c ;
+
+            if ( !before( array[ m ] , array[ i ] , min ) )
+                return ;
+            swap( i , m ) ;
+            if ( m <= 2 * i + 2 )                   //A child; done
+                return ;
+            int parent = ( m - 1 ) / 2 ;
+            if ( before( array[ parent ] , array[ m ] , min ) )
+                swap( m , parent ) ;
+            i = m ;
+        }
+    }
+
+    /**
+     * Swaps two values of the heap.
+     * @param i one index.
+     * @param j the other index.
+     */
+    private void swap( int i , int j )
+    {
+        AnyType temp = array[ i ] ;
+        array[ i ] = array[ j ] ;
+        array[ j ] = temp ;
+    }
+}
@@ -0,0 +1,226 @@
+package cop3530;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Represents a Double Ended Priority Queue for values whose priority is a
+ * small integer key, 0 to MAX_KEY. A key extractor gives each value's key,
+ * which picks one of MAX_KEY + 1 buckets; values are never compared. A bitmap
+ * with one bit per bucket marks the buckets in use, and two smaller bitmaps
+ * above it mark the words and summary words that have a bit set. findMin and
+ * findMax follow the lowest or highest bit down the three levels with
+ * Long.numberOfTrailingZeros or Long.numberOfLeadingZeros, so every
+ * operation is O( 1 ). Values with equal keys come out in no set order.
+ * @author Aqib Shah
+ * @param <AnyType> Generic type.
+ */
+public class BucketDoubleEndedPriorityQueue< AnyType > implements
+        DoubleEndedPriorityQueue < AnyType >
+{
+
+    //--------------------------------------------------------------------------
+    /**
+     * A value in a bucket's stack.
+     * @param <AnyType>
+     */
+    private static class Node < AnyType >
+    {
+        private final AnyType data ;                //Value
+        private final Node < AnyType > next ;       //Below in the bucket
+
+        public Node( AnyType d , Node < AnyType > n )
+        {
+            data = d ;
+            next = n ;
+        }
+    }
+    //--------------------------------------------------------------------------
+
+    /**
+     * The largest key a value may have.
+     */
+    public static final int MAX_KEY = 65535 ;
+
+    private final ToIntFunction < ? super AnyType > key ;   //Key extractor
+    private final Node < AnyType > [ ] buckets ;            //One per key
+    private final long [ ] words ;                  //Bit per bucket in use
+    private final long [ ] summary ;                //Bit per word not 0
+    private long top ;                              //Bit per summary not 0
+    private int currentSize ;                       //Number of items
+
+    /**
+     * Constructs an empty queue.
+     * @param k gives the key, 0 to MAX_KEY, of each value.
+     */
+    public BucketDoubleEndedPriorityQueue (
+            ToIntFunction < ? super AnyType > k )
+    {
+        key = k ;
+        buckets = new Node[ MAX_KEY + 1 ] ;
+        words = new long[ ( MAX_KEY + 1 ) / 64 ] ;
+        summary = new long[ words.length / 64 ] ;
+    }
+
+    /**
+     * Clears the contents of the queue, visiting only the buckets in use.
+     */
+    public void makeEmpty( )
+    {
+        for ( int w = 0 ; w < words.length ; w++ )
+        {
+            for ( long bits = words[ w ] ; bits != 0 ; bits &= bits - 1 )
+                buckets[ w * 64 + Long.numberOfTrailingZeros( bits ) ] = null ;
+            words[ w ] = 0 ;
+        }
+        for ( int s = 0 ; s < summary.length ; s++ )
+            summary[ s ] = 0 ;
+        top = 0 ;
+        currentSize = 0 ;
+    }
+
+    /**
+     * Adds a value to the queue.
+     * @param x value to be added.
+     * @throws IllegalArgumentException if the key of x is not 0 to MAX_KEY.
+     */
+    public void add ( AnyType x )
+    {
+        int b = key.applyAsInt( x ) ;
+        if ( b < 0 || b > MAX_KEY )
+            throw new IllegalArgumentException( "Key out of range: " + b ) ;
+        if ( buckets[ b ] == null )                 //Bucket comes into use
+        {
+            words[ b >>> 6 ] |= 1L << b ;
+            summary[ b >>> 12 ] |= 1L << ( b >>> 6 ) ;
+            top |= 1L << ( b >>> 12 ) ;
+        }
+        buckets[ b ] = new Node<>( x , buckets[ b ] ) ;
+        currentSize++ ;
+    }
+
+    /**
+     * Deletes the minimum value.
+     * @return the minimum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType deleteMin( ) throws UnderflowException
+    {
+        return removeFrom( minBucket( ) ) ;
+    }
+
+    /**
+     * Deletes the maximum value.
+     * @return the maximum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType deleteMax( ) throws UnderflowException
+    {
+        return removeFrom( maxBucket( ) ) ;
+    }
+
+    /**
+     * Finds the value that is the minimum.
+     * @return the minimum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType findMin( )
+    {
+        return buckets[ minBucket( ) ].data ;
+    }
+
+    /**
+     * Finds the value that is the maximum.
+     * @return the maximum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType findMax( )
+    {
+        return buckets[ maxBucket( ) ].data ;
+    }
+
+    /**
+     * Returns the number of values in the queue.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return currentSize ;
+    }
+
+    /**
+     * Checks whether the queue is empty.
+     * @return whether queue is empty or not.
+     */
+    public boolean isEmpty( )
+    {
+        return currentSize == 0 ;
+    }
+
+    /**
+     * Provides a string representation of the queue, in order of key.
+     * @return a a printable string.
+     */
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder() ;
+        sb.append( "[  " ) ;
+        for ( int w = 0 ; w < words.length ; w++ )
+            for ( long bits = words[ w ] ; bits != 0 ; bits &= bits - 1 )
+                for ( Node < AnyType > p =
+                        buckets[ w * 64 + Long.numberOfTrailingZeros( bits ) ] ;
+                      p != null ; p = p.next )
+                {
+                    sb.append( p.data ) ;
+                    sb.append( ", " ) ;
+                }
+        sb.setLength( sb.length() - 2 ) ;
+        sb.append( "  ]" ) ;
+        return new String ( sb ) ;
+    }
+
+    /**
+     * Finds the lowest bucket in use.
+     * @return the bucket's key.
+     * @throws UnderflowException if the queue is empty.
+     */
+    private int minBucket( )
+    {
+        if ( top == 0 )
+            throw new UnderflowException( ) ;
+        int s = Long.numberOfTrailingZeros( top ) ;
+        int w = s * 64 + Long.numberOfTrailingZeros( summary[ s ] ) ;
+        return w * 64 + Long.numberOfTrailingZeros( words[ w ] ) ;
+    }
+
+    /**
+     * Finds the highest bucket in use.
+     * @return the bucket's key.
+     * @throws UnderflowException if the queue is empty.
+     */
+    private int maxBucket( )
+    {
+        if ( top == 0 )
+            throw new UnderflowException( ) ;
+        int s = 63 - Long.numberOfLeadingZeros( top ) ;
+        int w = s * 64 + 63 - Long.numberOfLeadingZeros( summary[ s ] ) ;
+        return w * 64 + 63 - Long.numberOfLeadingZeros( words[ w ] ) ;
+    }
+
+    /**
+     * Pops the top value of a bucket in use, clearing its bits when it
+     * empties.
+     * @param b the bucket's key.
+     * @return the value.
+     */
+    private AnyType removeFrom( int b )
+    {
+        Node < AnyType > p = buckets[ b ] ;
+        buckets[ b ] = p.next ;
+        currentSize-- ;
+        if ( p.next == null )                       //Bucket goes out of use
+            if ( ( words[ b >>> 6 ] &= ~( 1L << b ) ) == 0 )
+                if ( ( summary[ b >>> 12 ] &= ~( 1L << ( b >>> 6 ) ) ) == 0 )
+                    top &= ~( 1L << ( b >>> 12 ) ) ;
+        return p.data ;
+    }
+}
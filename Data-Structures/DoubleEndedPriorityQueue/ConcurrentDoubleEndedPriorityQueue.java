@@ -0,0 +1,339 @@
+package cop3530;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents a Double Ended Priority Queue that many threads may use at
+ * once, kept in a concurrent skip list. Each value is stored with a sequence
+ * number so that equal values stay distinct. add, deleteMin, deleteMax,
+ * findMin and findMax take no lock: the skip list lets threads work on both
+ * ends at the same time. takeMin and takeMax wait for a value when the queue
+ * is empty; only waiting threads and the adds that wake them use a lock.
+ * @author Aqib Shah
+ * @param <AnyType> Generic type.
+ */
+public class ConcurrentDoubleEndedPriorityQueue< AnyType > implements
+        DoubleEndedPriorityQueue < AnyType >
+{
+
+    //--------------------------------------------------------------------------
+    /**
+     * A value and the order it was added in.
+     * @param <AnyType>
+     */
+    private static class Item < AnyType >
+    {
+        private final AnyType data ;                //Value
+        private final long seq ;                    //Breaks ties
+
+        public Item( AnyType d , long s )
+        {
+            data = d ;
+            seq = s ;
+        }
+    }
+    //--------------------------------------------------------------------------
+
+    private final Comparator < ? super AnyType > cmp ;      //Comparator
+    private final ConcurrentSkipListMap < Item < AnyType > , Boolean > items ;
+    private final AtomicLong nextSeq = new AtomicLong( ) ;  //Sequence numbers
+    private final ReentrantLock lock = new ReentrantLock( ) ;   //For waiting
+    private final Condition notEmpty = lock.newCondition( ) ;
+    private final AtomicInteger waiting = new AtomicInteger( ) ;  //In take
+    private final AtomicInteger count = new AtomicInteger( ) ;    //Values
+
+    /**
+     * Constructs an empty queue with a null comparator.
+     */
+    public ConcurrentDoubleEndedPriorityQueue ( )
+    {
+        this ( null ) ;
+    }
+
+    /**
+     * Constructs an empty queue with the given comparator.
+     * @param c the comparator.
+     */
+    public ConcurrentDoubleEndedPriorityQueue (
+            Comparator < ? super AnyType > c )
+    {
+        cmp = c ;
+        items = new ConcurrentSkipListMap<>( this::compareItems ) ;
+    }
+
+    /**
+     * Compares two values.
+     * @param a first value.
+     * @param b second value.
+     * @return whether one is larger than the other, or vice-versa, or equal.
+     */
+    private int myCompare( AnyType a , AnyType b )
+    {
+        if ( cmp == null )
+            return ( ( Comparable ) a ).compareTo ( b ) ;
+        else
+            return cmp.compare( a ,  b ) ;
+    }
+
+    /**
+     * Orders items by value, then by when they were added.
+     * @param a first item.
+     * @param b second item.
+     * @return the order of the two items.
+     */
+    private int compareItems( Item < AnyType > a , Item < AnyType > b )
+    {
+        int compResult = myCompare( a.data , b.data ) ;
+        return ( compResult != 0 ) ? compResult : Long.compare( a.seq , b.seq ) ;
+    }
+
+    /**
+     * Clears the contents of the queue. Values are removed one at a time so
+     * that the count stays right when other threads add at the same time.
+     */
+    public void makeEmpty( )
+    {
+        while ( items.pollFirstEntry( ) != null )
+            count.decrementAndGet( ) ;
+    }
+
+    /**
+     * Adds a value to the queue, waking a thread waiting in takeMin or
+     * takeMax if there is one.
+     * @param x value to be added.
+     */
+    public void add ( AnyType x )
+    {
+        items.put( new Item<>( x , nextSeq.getAndIncrement( ) ) ,
+                   Boolean.TRUE ) ;
+        count.incrementAndGet( ) ;
+        if ( waiting.get( ) > 0 )
+        {
+            lock.lock( ) ;
+            try
+            {
+                notEmpty.signal( ) ;
+            }
+            finally
+            {
+                lock.unlock( ) ;
+            }
+        }
+    }
+
+    /**
+     * Deletes the minimum value.
+     * @return the minimum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType deleteMin( ) throws UnderflowException
+    {
+        return removed( items.pollFirstEntry( ) ) ;
+    }
+
+    /**
+     * Deletes the maximum value.
+     * @return the maximum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType deleteMax( ) throws UnderflowException
+    {
+        return removed( items.pollLastEntry( ) ) ;
+    }
+
+    /**
+     * Deletes up to k of the smallest values. Each is taken atomically, but
+     * other threads may take or add values between them.
+     * @param k the most values to delete.
+     * @return the values deleted, smallest first.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public List < AnyType > drainMin( int k )
+    {
+        return drain( k , true ) ;
+    }
+
+    /**
+     * Deletes up to k of the largest values. Each is taken atomically, but
+     * other threads may take or add values between them.
+     * @param k the most values to delete.
+     * @return the values deleted, largest first.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public List < AnyType > drainMax( int k )
+    {
+        return drain( k , false ) ;
+    }
+
+    /**
+     * Deletes the minimum value, first waiting for one if the queue is
+     * empty.
+     * @return the minimum value.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public AnyType takeMin( ) throws InterruptedException
+    {
+        return take( true ) ;
+    }
+
+    /**
+     * Deletes the maximum value, first waiting for one if the queue is
+     * empty.
+     * @return the maximum value.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public AnyType takeMax( ) throws InterruptedException
+    {
+        return take( false ) ;
+    }
+
+    /**
+     * Finds the value that is the minimum.
+     * @return the minimum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType findMin( )
+    {
+        return dataOf( items.firstEntry( ) ) ;
+    }
+
+    /**
+     * Finds the value that is the maximum.
+     * @return the maximum value.
+     * @throws UnderflowException if the queue is empty.
+     */
+    public AnyType findMax( )
+    {
+        return dataOf( items.lastEntry( ) ) ;
+    }
+
+    /**
+     * Returns the number of values in the queue. Unlike the skip list's own
+     * size, this is O( 1 ); it may briefly lag a value being added or
+     * deleted by another thread.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return Math.max( count.get( ) , 0 ) ;
+    }
+
+    /**
+     * Checks whether the queue is empty.
+     * @return whether queue is empty or not.
+     */
+    public boolean isEmpty( )
+    {
+        return items.isEmpty( ) ;
+    }
+
+    /**
+     * Provides a string representation of the queue. Values added or
+     * deleted while it runs may or may not appear.
+     * @return a a printable string.
+     */
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder() ;
+        sb.append( "[  " ) ;
+        for ( Item < AnyType > item : items.keySet( ) )
+        {
+            sb.append( item.data ) ;
+            sb.append( ", " ) ;
+        }
+        sb.setLength( sb.length() - 2 ) ;
+        sb.append( "  ]" ) ;
+        return new String ( sb ) ;
+    }
+
+    /**
+     * Unwraps the value of a skip list entry.
+     * @param e the entry, or null if the skip list was empty.
+     * @return the value.
+     * @throws UnderflowException if e is null.
+     */
+    private AnyType dataOf( Map.Entry < Item < AnyType > , Boolean > e )
+    {
+        if ( e == null )
+            throw new UnderflowException( ) ;
+        return e.getKey( ).data ;
+    }
+
+    /**
+     * Unwraps the value of an entry just polled from the skip list, and
+     * counts it as gone.
+     * @param e the entry, or null if the skip list was empty.
+     * @return the value.
+     * @throws UnderflowException if e is null.
+     */
+    private AnyType removed( Map.Entry < Item < AnyType > , Boolean > e )
+    {
+        AnyType x = dataOf( e ) ;
+        count.decrementAndGet( ) ;
+        return x ;
+    }
+
+    /**
+     * Polls up to k values from one end.
+     * @param k the most values to delete.
+     * @param min true for the smallest, false for the largest.
+     * @return the values deleted, in the order taken.
+     */
+    private List < AnyType > drain( int k , boolean min )
+    {
+        if ( k < 0 )
+            throw new IllegalArgumentException( "k must not be negative: "
+                                                + k ) ;
+        List < AnyType > result = new ArrayList<>( Math.min( k , size( ) ) ) ;
+        while ( result.size( ) < k )
+        {
+            Map.Entry < Item < AnyType > , Boolean > e
+                    = min ? items.pollFirstEntry( ) : items.pollLastEntry( ) ;
+            if ( e == null )
+                break ;
+            result.add( removed( e ) ) ;
+        }
+        return result ;
+    }
+
+    /**
+     * Deletes from one end, waiting while the queue is empty. A thread
+     * counts itself in waiting before it checks for emptiness, and add
+     * checks waiting after it inserts, so no add can slip between the check
+     * and the wait unnoticed.
+     * @param min true for the minimum, false for the maximum.
+     * @return the value deleted.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private AnyType take( boolean min ) throws InterruptedException
+    {
+        while ( true )
+        {
+            Map.Entry < Item < AnyType > , Boolean > e
+                    = min ? items.pollFirstEntry( ) : items.pollLastEntry( ) ;
+            if ( e != null )
+                return removed( e ) ;
+
+            lock.lockInterruptibly( ) ;
+            waiting.incrementAndGet( ) ;
+            try
+            {
+                while ( items.isEmpty( ) )
+                    notEmpty.await( ) ;
+            }
+            finally
+            {
+                waiting.decrementAndGet( ) ;
+                lock.unlock( ) ;
+            }
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package cop3530;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 
 /**
  * Represents a Double Ended Priority Queue.
@@ -16,4 +19,50 @@ public interface DoubleEndedPriorityQueue< AnyType >
     AnyType findMin( ) ;            //Returns minimum.
     AnyType findMax( ) ;            //Returns maximum.
     boolean isEmpty( ) ;            //Determines whether empty or not.
-}
\ No newline at end of file
+    int size( ) ;                   //Number of values, in O( 1 ).
+    
+    /**
+     * Adds every value of a collection. Implementations that can build
+     * faster from a whole batch than by repeated add override this.
+     * @param items the values to be added.
+     */
+    default void addAll( Collection < ? extends AnyType > items )
+    {
+        for ( AnyType x : items )
+            add( x ) ;
+    }
+    
+    /**
+     * Deletes the k smallest values, or all of them if there are fewer.
+     * @param k the most values to delete.
+     * @return the values deleted, smallest first.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    default List < AnyType > drainMin( int k )
+    {
+        if ( k < 0 )
+            throw new IllegalArgumentException( "k must not be negative: "
+                                                + k ) ;
+        List < AnyType > result = new ArrayList<>( Math.min( k , size( ) ) ) ;
+        while ( result.size( ) < k && !isEmpty( ) )
+            result.add( deleteMin( ) ) ;
+        return result ;
+    }
+    
+    /**
+     * Deletes the k largest values, or all of them if there are fewer.
+     * @param k the most values to delete.
+     * @return the values deleted, largest first.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    default List < AnyType > drainMax( int k )
+    {
+        if ( k < 0 )
+            throw new IllegalArgumentException( "k must not be negative: "
+                                                + k ) ;
+        List < AnyType > result = new ArrayList<>( Math.min( k , size( ) ) ) ;
+        while ( result.size( ) < k && !isEmpty( ) )
+            result.add( deleteMax( ) ) ;
+        return result ;
+    }
+}
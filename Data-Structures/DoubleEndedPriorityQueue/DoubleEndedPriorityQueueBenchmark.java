@@ -0,0 +1,414 @@
+package cop3530;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Times the double ended priority queues in this package. For each queue,
+ * input order and size it adds n items, then deletes half with deleteMin and
+ * half with deleteMax, and prints nanoseconds and bytes allocated per
+ * operation for each phase. Small integer keys are also run through
+ * BucketDoubleEndedPriorityQueue. It also times keeping the best TOP_K of a
+ * stream. It then compares multi-threaded throughput of
+ * ConcurrentDoubleEndedPriorityQueue against a TreeDoubleEndedPriorityQueue
+ * behind a global lock; pass the number of threads and the operations per
+ * thread to change that part.
+ * @author Aqib Shah
+ */
+public class DoubleEndedPriorityQueueBenchmark
+{
+    private static final int [ ] SIZES = { 1_000 , 10_000 , 30_000 } ;
+    private static final int PREFILL = 10_000 ;     //Items before threads run
+    private static final int TOP_K = 100 ;          //Best items kept
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ( com.sun.management.ThreadMXBean )
+                    ManagementFactory.getThreadMXBean( ) ;
+
+    /**
+     * Makes an empty queue to benchmark.
+     */
+    private interface QueueFactory
+    {
+        String name( ) ;
+        DoubleEndedPriorityQueue < Integer > create( ) ;
+    }
+
+    /**
+     * Wraps a queue in one lock, the way callers share it today.
+     */
+    private static class LockedQueue < AnyType >
+            implements DoubleEndedPriorityQueue < AnyType >
+    {
+        private final DoubleEndedPriorityQueue < AnyType > queue ;
+
+        LockedQueue( DoubleEndedPriorityQueue < AnyType > q )
+        { queue = q ; }
+
+        public synchronized void makeEmpty( )
+        { queue.makeEmpty( ) ; }
+
+        public synchronized void add( AnyType x )
+        { queue.add( x ) ; }
+
+        public synchronized AnyType deleteMin( )
+        { return queue.deleteMin( ) ; }
+
+        public synchronized AnyType deleteMax( )
+        { return queue.deleteMax( ) ; }
+
+        public synchronized AnyType findMin( )
+        { return queue.findMin( ) ; }
+
+        public synchronized AnyType findMax( )
+        { return queue.findMax( ) ; }
+
+        public synchronized boolean isEmpty( )
+        { return queue.isEmpty( ) ; }
+
+        public synchronized int size( )
+        { return queue.size( ) ; }
+    }
+
+    public static void main( String [ ] args ) throws InterruptedException
+    {
+        int threads = ( args.length > 0 ) ? Integer.parseInt( args[ 0 ] )
+                : Runtime.getRuntime( ).availableProcessors( ) ;
+        int opsPerThread = ( args.length > 1 ) ? Integer.parseInt( args[ 1 ] )
+                : 1_000_000 ;
+
+        QueueFactory [ ] queues =
+        {
+            new QueueFactory( )
+            {
+                public String name( )
+                { return "ListDoubleEndedPriorityQueue" ; }
+
+                public DoubleEndedPriorityQueue < Integer > create( )
+                { return new ListDoubleEndedPriorityQueue <> ( ) ; }
+            } ,
+            new QueueFactory( )
+            {
+                public String name( )
+                { return "TreeDoubleEndedPriorityQueue" ; }
+
+                public DoubleEndedPriorityQueue < Integer > create( )
+                { return new TreeDoubleEndedPriorityQueue <> ( ) ; }
+            } ,
+            new QueueFactory( )
+            {
+                public String name( )
+                { return "HeapDoubleEndedPriorityQueue" ; }
+
+                public DoubleEndedPriorityQueue < Integer > create( )
+                { return new HeapDoubleEndedPriorityQueue <> ( ) ; }
+            } ,
+            new QueueFactory( )
+            {
+                public String name( )
+                { return "BalancedTreeDoubleEndedPriorityQueue" ; }
+
+                public DoubleEndedPriorityQueue < Integer > create( )
+                { return new BalancedTreeDoubleEndedPriorityQueue <> ( ) ; }
+            } ,
+            new QueueFactory( )
+            {
+                public String name( )
+                { return "AddressableDoubleEndedPriorityQueue" ; }
+
+                public DoubleEndedPriorityQueue < Integer > create( )
+                { return new AddressableDoubleEndedPriorityQueue <> ( ) ; }
+            } ,
+        } ;
+        QueueFactory bucket = new QueueFactory( )   //Small keys only
+        {
+            public String name( )
+            { return "BucketDoubleEndedPriorityQueue" ; }
+
+            public DoubleEndedPriorityQueue < Integer > create( )
+            {
+                return new BucketDoubleEndedPriorityQueue < Integer > (
+                        Integer::intValue ) ;
+            }
+        } ;
+
+        for ( int round = 0 ; round < 2 ; round++ ) //First round is warm-up
+        {
+            System.out.println( ( round == 0 ) ? "Warm-up" : "Measured" ) ;
+            for ( int n : SIZES )
+                for ( QueueFactory queue : queues )
+                {
+                    report( queue , "random" , randomItems( n ) ) ;
+                    report( queue , "ascending" , ascendingItems( n ) ) ;
+                }
+            for ( int n : SIZES )
+            {
+                Integer [ ] items = smallKeyItems( n ) ;
+                for ( QueueFactory queue : queues )
+                    report( queue , "small keys" , items ) ;
+                report( bucket , "small keys" , items ) ;
+            }
+            for ( int n : SIZES )
+                reportLong( n ) ;
+            for ( int n : SIZES )
+                reportTopK( n ) ;
+        }
+
+        for ( int round = 0 ; round < 2 ; round++ ) //First round is warm-up
+        {
+            System.out.println( ( round == 0 ) ? "Warm-up" : "Measured" ) ;
+            report( "TreeDoubleEndedPriorityQueue, global lock" , threads ,
+                    opsPerThread , new LockedQueue < Integer > (
+                            new TreeDoubleEndedPriorityQueue <> ( ) ) ) ;
+            report( "ConcurrentDoubleEndedPriorityQueue" , threads ,
+                    opsPerThread ,
+                    new ConcurrentDoubleEndedPriorityQueue < Integer > ( ) ) ;
+        }
+    }
+
+    /**
+     * Runs producers and consumers on one queue at once and prints the
+     * throughput. Every thread alternates between adding a random item and
+     * deleting one; even-numbered threads delete with deleteMin and odd ones
+     * with deleteMax, like the two kinds of consumer sharing a queue.
+     * @param name the label to print.
+     * @param threads the number of threads.
+     * @param opsPerThread the operations each thread performs.
+     * @param queue the queue under test.
+     */
+    private static void report( String name , int threads ,
+                                final int opsPerThread ,
+                                final DoubleEndedPriorityQueue < Integer > queue )
+            throws InterruptedException
+    {
+        Random fill = new Random( 0 ) ;
+        for ( int i = 0 ; i < PREFILL ; i++ )
+            queue.add( fill.nextInt( ) ) ;
+
+        final CountDownLatch start = new CountDownLatch( 1 ) ;
+        Thread [ ] workers = new Thread[ threads ] ;
+        for ( int i = 0 ; i < threads ; i++ )
+        {
+            final long seed = i + 1 ;
+            final boolean fromMin = ( i % 2 == 0 ) ;
+            workers[ i ] = new Thread( new Runnable( )
+            {
+                public void run( )
+                {
+                    Random rand = new Random( seed ) ;
+                    try
+                    {
+                        start.await( ) ;
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        return ;
+                    }
+                    for ( int op = 0 ; op < opsPerThread ; op += 2 )
+                    {
+                        queue.add( rand.nextInt( ) ) ;
+                        try
+                        {
+                            if ( fromMin )
+                                queue.deleteMin( ) ;
+                            else
+                                queue.deleteMax( ) ;
+                        }
+                        catch ( UnderflowException e )
+                        {
+                            //Another consumer got there first
+                        }
+                    }
+                }
+            } ) ;
+            workers[ i ].start( ) ;
+        }
+
+        long begin = System.nanoTime( ) ;
+        start.countDown( ) ;
+        for ( Thread t : workers )
+            t.join( ) ;
+        long elapsed = System.nanoTime( ) - begin ;
+
+        double opsPerSec = ( double ) threads * opsPerThread * 1e9 / elapsed ;
+        System.out.printf( "  %-48s %2d threads  %,14.0f ops/s%n" ,
+                           name , threads , opsPerSec ) ;
+    }
+
+    /**
+     * Makes n random items, boxed up front so boxing is not counted.
+     * @param n the number of items.
+     * @return the items.
+     */
+    private static Integer [ ] randomItems( int n )
+    {
+        Random rand = new Random( n ) ;
+        Integer [ ] items = new Integer[ n ] ;
+        for ( int i = 0 ; i < n ; i++ )
+            items[ i ] = rand.nextInt( ) ;
+        return items ;
+    }
+
+    /**
+     * Makes n items in increasing order, like a stream of timestamps.
+     * @param n the number of items.
+     * @return the items.
+     */
+    private static Integer [ ] ascendingItems( int n )
+    {
+        Integer [ ] items = new Integer[ n ] ;
+        for ( int i = 0 ; i < n ; i++ )
+            items[ i ] = i ;
+        return items ;
+    }
+
+    /**
+     * Makes n random items from 0 to BucketDoubleEndedPriorityQueue.MAX_KEY,
+     * like small integer priorities.
+     * @param n the number of items.
+     * @return the items.
+     */
+    private static Integer [ ] smallKeyItems( int n )
+    {
+        Random rand = new Random( n ) ;
+        Integer [ ] items = new Integer[ n ] ;
+        for ( int i = 0 ; i < n ; i++ )
+            items[ i ] = rand.nextInt(
+                    BucketDoubleEndedPriorityQueue.MAX_KEY + 1 ) ;
+        return items ;
+    }
+
+    /**
+     * Adds every item to a new queue, then empties it from both ends,
+     * printing the cost of each phase.
+     * @param factory makes the queue under test.
+     * @param order label for the input order.
+     * @param items the items.
+     */
+    private static void report( QueueFactory factory , String order ,
+                                Integer [ ] items )
+    {
+        String label = factory.name( ) + ", " + order ;
+        DoubleEndedPriorityQueue < Integer > queue = factory.create( ) ;
+        int n = items.length ;
+        try
+        {
+            long time = System.nanoTime( ) ;
+            long bytes = allocatedBytes( ) ;
+            for ( Integer x : items )
+                queue.add( x ) ;
+            printPhase( label , "add" , n , time , bytes ) ;
+
+            time = System.nanoTime( ) ;
+            bytes = allocatedBytes( ) ;
+            for ( int i = 0 ; i < n / 2 ; i++ )
+                queue.deleteMin( ) ;
+            printPhase( label , "deleteMin" , n / 2 , time , bytes ) ;
+
+            time = System.nanoTime( ) ;
+            bytes = allocatedBytes( ) ;
+            while ( !queue.isEmpty( ) )
+                queue.deleteMax( ) ;
+            printPhase( label , "deleteMax" , n - n / 2 , time , bytes ) ;
+        }
+        catch ( StackOverflowError e )
+        {
+            System.out.printf( "  %-48s n=%,-8d stack overflow%n" ,
+                               label , n ) ;
+        }
+    }
+
+    /**
+     * Like report, for a LongDoubleEndedPriorityQueue fed ascending longs
+     * such as deadlines. Nothing is boxed, so any bytes allocated are the
+     * array growing.
+     * @param n the number of items.
+     */
+    private static void reportLong( int n )
+    {
+        String label = "LongDoubleEndedPriorityQueue, ascending" ;
+        LongDoubleEndedPriorityQueue queue =
+                new LongDoubleEndedPriorityQueue( ) ;
+        long base = System.currentTimeMillis( ) ;
+
+        long time = System.nanoTime( ) ;
+        long bytes = allocatedBytes( ) ;
+        for ( int i = 0 ; i < n ; i++ )
+            queue.add( base + i ) ;
+        printPhase( label , "add" , n , time , bytes ) ;
+
+        time = System.nanoTime( ) ;
+        bytes = allocatedBytes( ) ;
+        for ( int i = 0 ; i < n / 2 ; i++ )
+            queue.deleteMin( ) ;
+        printPhase( label , "deleteMin" , n / 2 , time , bytes ) ;
+
+        time = System.nanoTime( ) ;
+        bytes = allocatedBytes( ) ;
+        while ( !queue.isEmpty( ) )
+            queue.deleteMax( ) ;
+        printPhase( label , "deleteMax" , n - n / 2 , time , bytes ) ;
+    }
+
+    /**
+     * Keeps the TOP_K largest of n random items, first with a
+     * HeapDoubleEndedPriorityQueue and a deleteMin after each add once it is
+     * full, then with a BoundedDoubleEndedPriorityQueue's offer.
+     * @param n the number of items.
+     */
+    private static void reportTopK( int n )
+    {
+        Integer [ ] items = randomItems( n ) ;
+        HeapDoubleEndedPriorityQueue < Integer > heap =
+                new HeapDoubleEndedPriorityQueue <> ( ) ;
+        long time = System.nanoTime( ) ;
+        long bytes = allocatedBytes( ) ;
+        for ( Integer x : items )
+        {
+            heap.add( x ) ;
+            if ( heap.size( ) > TOP_K )
+                heap.deleteMin( ) ;
+        }
+        printPhase( "HeapDoubleEndedPriorityQueue, top " + TOP_K ,
+                    "add+del" , n , time , bytes ) ;
+
+        BoundedDoubleEndedPriorityQueue < Integer > bounded =
+                new BoundedDoubleEndedPriorityQueue <> ( TOP_K , true ) ;
+        time = System.nanoTime( ) ;
+        bytes = allocatedBytes( ) ;
+        for ( Integer x : items )
+            bounded.offer( x ) ;
+        printPhase( "BoundedDoubleEndedPriorityQueue, top " + TOP_K ,
+                    "offer" , n , time , bytes ) ;
+    }
+
+    /**
+     * Prints the cost per operation of one phase.
+     * @param label the queue and input order.
+     * @param phase the operation.
+     * @param n the number of operations.
+     * @param startTime System.nanoTime( ) when the phase began.
+     * @param startBytes allocatedBytes( ) when the phase began.
+     */
+    private static void printPhase( String label , String phase , int n ,
+                                    long startTime , long startBytes )
+    {
+        double nanos = ( double ) ( System.nanoTime( ) - startTime ) / n ;
+        double bytes = ( double ) ( allocatedBytes( ) - startBytes ) / n ;
+        System.out.printf( "  %-48s %-9s n=%,-8d %10.1f ns/op %7.1f B/op%n" ,
+                           label , phase , n , nanos , bytes ) ;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the calling thread.
+     * @return the byte count, or 0 if the JVM cannot report it.
+     */
+    private static long allocatedBytes( )
+    {
+        return THREADS.isThreadAllocatedMemorySupported( )
+                ? THREADS.getThreadAllocatedBytes(
+                        Thread.currentThread( ).getId( ) )
+                : 0 ;
+    }
+}
@@ -0,0 +1,381 @@
+package cop3530;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Represents a Double Ended Priority Queue as a min-max heap stored in an
+ * array. Nodes on even levels (the root is level 0) are no larger than
+ * anything below them, and nodes on odd levels are no smaller, so the minimum
+ * is the root and the maximum is one of its children. add, deleteMin and
+ * deleteMax are O( log n ) whatever the input order, findMin and findMax are
+ * O( 1 ), and no node objects are allocated.
+ * @author Aqib Shah
+ * @param <AnyType> Generic type.
+ */
+public class HeapDoubleEndedPriorityQueue< AnyType > implements
+        DoubleEndedPriorityQueue < AnyType >
+{
+    private static final int DEFAULT_CAPACITY = 16 ;
+
+    private Comparator < ? super AnyType > cmp ;        //Comparator
+    private AnyType [ ] array ;                         //The heap
+    private int currentSize ;                           //Number of items
+
+    /**
+     * Constructs an empty heap with a null comparator.
+     */
+    public HeapDoubleEndedPriorityQueue ( )
+    {
+        this ( null ) ;
+    }
+
+    /**
+     * Constructs an empty heap with the given comparator.
+     * @param c the comparator.
+     */
+    public HeapDoubleEndedPriorityQueue ( Comparator < ? super AnyType > c )
+    {
+        cmp = c ;
+        makeEmpty( ) ;
+    }
+
+    /**
+     * Compares two values.
+     * @param a first value.
+     * @param b second value.
+     * @return whether one is larger than the other, or vice-versa, or equal.
+     */
+    private int myCompare( AnyType a , AnyType b )
+    {
+        if ( cmp == null )
+            return ( ( Comparable ) a ).compareTo ( b ) ;
+        else
+            return cmp.compare( a ,  b ) ;
+    }
+
+    /**
+     * Clears the contents of the heap.
+     */
+    public void makeEmpty( )
+    {
+        array = ( AnyType [ ] ) new Object[ DEFAULT_CAPACITY ] ;
+        currentSize = 0 ;
+    }
+
+    /**
+     * Adds a value to the heap.
+     * @param x value to be added.
+     */
+    public void add ( AnyType x )
+    {
+        if ( currentSize == array.length )
+            array = Arrays.copyOf( array , array.length * 2 ) ;
+        array[ currentSize ] = x ;
+        bubbleUp( currentSize++ ) ;
+    }
+
+    /**
+     * Adds every value of a collection. When the batch is at least as big
+     * as the heap, the values are appended and the whole array is rebuilt
+     * bottom-up, trickling each parent down in turn, which is O( n ) rather
+     * than O( n log n ).
+     * @param items the values to be added.
+     */
+    public void addAll( Collection < ? extends AnyType > items )
+    {
+        if ( items.size( ) < currentSize )
+        {
+            for ( AnyType x : items )
+                add( x ) ;
+            return ;
+        }
+        
+        int newSize = currentSize + items.size( ) ;
+        if ( newSize > array.length )
+            array = Arrays.copyOf( array , Math.max( newSize , 
+                                                     array.length * 2 ) ) ;
+        for ( AnyType x : items )
+            array[ currentSize++ ] = x ;
+        for ( int i = currentSize / 2 - 1 ; i >= 0 ; i-- )
+        {
+            if ( isMinLevel( i ) )
+                trickleDownMin( i ) ;
+            else
+                trickleDownMax( i ) ;
+        }
+    }
+
+    /**
+     * Deletes the minimum value, the root.
+     * @return the minimum value.
+     * @throws UnderflowException if called for an empty heap.
+     */
+    public AnyType deleteMin( ) throws UnderflowException
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return removeAt( 0 ) ;
+    }
+
+    /**
+     * Deletes the maximum value, the larger child of the root.
+     * @return the maximum value.
+     * @throws UnderflowException if called for an empty heap.
+     */
+    public AnyType deleteMax( ) throws UnderflowException
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return removeAt( maxIndex( ) ) ;
+    }
+
+    /**
+     * Finds the value that is the minimum.
+     * @return the minimum value.
+     * @throws UnderflowException if called for an empty heap.
+     */
+    public AnyType findMin( )
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return array[ 0 ] ;
+    }
+
+    /**
+     * Finds the value that is the maximum.
+     * @return the maximum value.
+     * @throws UnderflowException if called for an empty heap.
+     */
+    public AnyType findMax( )
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return array[ maxIndex( ) ] ;
+    }
+
+    /**
+     * Returns the number of values in the heap.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return currentSize ;
+    }
+
+    /**
+     * Checks whether the heap is empty.
+     * @return whether heap is empty or not.
+     */
+    public boolean isEmpty( )
+    {
+        return currentSize == 0 ;
+    }
+
+    /**
+     * Provides a string representation of the heap, in sorted order.
+     * @return a a printable string.
+     */
+    public String toString()
+    {
+        AnyType [ ] sorted = Arrays.copyOf( array , currentSize ) ;
+        Arrays.sort( sorted , this::myCompare ) ;
+        StringBuilder sb = new StringBuilder() ;
+        sb.append( "[  " ) ;
+        for ( AnyType x : sorted )
+        {
+            sb.append( x ) ;
+            sb.append( ", " ) ;
+        }
+        sb.setLength( sb.length() - 2 ) ;
+        sb.append( "  ]" ) ;
+        return new String ( sb ) ;
+    }
+
+    /**
+     * Finds where the maximum is: the root if it is alone, else the larger
+     * of its children.
+     * @return the index of the maximum.
+     */
+    private int maxIndex( )
+    {
+        if ( currentSize == 1 )
+            return 0 ;
+        if ( currentSize == 2 || myCompare( array[ 1 ] , array[ 2 ] ) >= 0 )
+            return 1 ;
+        return 2 ;
+    }
+
+    /**
+     * Removes the value at a given index, filling the gap with the last
+     * value and moving that value down to its place.
+     * @param i the index, either the minimum's or the maximum's.
+     * @return the value removed.
+     */
+    private AnyType removeAt( int i )
+    {
+        AnyType x = array[ i ] ;
+        array[ i ] = array[ --currentSize ] ;
+        array[ currentSize ] = null ;               //Let it be collected
+        if ( i < currentSize )
+        {
+            if ( isMinLevel( i ) )
+                trickleDownMin( i ) ;
+            else
+                trickleDownMax( i ) ;
+        }
+        return x ;
+    }
+
+    /**
+     * Determines whether an index is on a min (even) level.
+     * @param i the index.
+     * @return true for a min level, false for a max level.
+     */
+    private static boolean isMinLevel( int i )
+    {
+        return ( 31 - Integer.numberOfLeadingZeros( i + 1 ) ) % 2 == 0 ;
+    }
+
+    /**
+     * Tests whether a value should be above another on a level of the given
+     * kind.
+     * @param a one value.
+     * @param b the other value.
+     * @param min true for a min level, false for a max level.
+     * @return true if a is smaller (min) or larger (max) than b.
+     */
+    private boolean before( AnyType a , AnyType b , boolean min )
+    {
+        int compResult = myCompare( a , b ) ;
+        return min ? compResult < 0 : compResult > 0 ;
+    }
+
+    /**
+     * Moves a newly added value up to its place. It first decides whether
+     * the value belongs among the min levels or the max levels by comparing
+     * it with its parent, then climbs only levels of that kind.
+     * @param i the index of the new value.
+     */
+    private void bubbleUp( int i )
+    {
+        if ( i == 0 )
+            return ;
+        int parent = ( i - 1 ) / 2 ;
+        if ( isMinLevel( i ) )
+        {
+            if ( myCompare( array[ i ] , array[ parent ] ) > 0 )
+            {
+                swap( i , parent ) ;
+                bubbleUp( parent , false ) ;
+            }
+            else
+                bubbleUp( i , true ) ;
+        }
+        else
+        {
+            if ( myCompare( array[ i ] , array[ parent ] ) < 0 )
+            {
+                swap( i , parent ) ;
+                bubbleUp( parent , true ) ;
+            }
+            else
+                bubbleUp( i , false ) ;
+        }
+    }
+
+    /**
+     * Moves a value up by grandparents while it is out of order with them.
+     * @param i the index of the value.
+     * @param min true on min levels (move up while smaller), false on max
+     * levels (move up while larger).
+     */
+    private void bubbleUp( int i , boolean min )
+    {
+        while ( i >= 3 )                            //Has a grandparent
+        {
+            int grandparent = ( ( i - 1 ) / 2 - 1 ) / 2 ;
+            if ( !before( array[ i ] , array[ grandparent ] , min ) )
+                return ;
+            swap( i , grandparent ) ;
+            i = grandparent ;
+        }
+    }
+
+    /**
+     * Moves a value on a min level down to its place.
+     * @param i the index of the value.
+     */
+    private void trickleDownMin( int i )
+    {
+        trickleDown( i , true ) ;
+    }
+
+    /**
+     * Moves a value on a max level down to its place.
+     * @param i the index of the value.
+     */
+    private void trickleDownMax( int i )
+    {
+        trickleDown( i , false ) ;
+    }
+
+    /**
+     * Moves a value down two levels at a time. At each step it is swapped
+     * with the most extreme of its children and grandchildren, if that one
+     * is more extreme than it; after a swap with a grandchild it may also
+     * need to change places with its new parent, which is on the other kind
+     * of level.
+     * @param i the index of the value.
+     * @param min true on min levels, false on max levels.
+     */
+    private void trickleDown( int i , boolean min )
+    {
+        while ( 2 * i + 1 < currentSize )           //Has a child
+        {
+            int m = extremeDescendant( i , min ) ;
+            if ( !before( array[ m ] , array[ i ] , min ) )
+                return ;
+            swap( i , m ) ;
+            if ( m <= 2 * i + 2 )                   //A child; done
+                return ;
+            int parent = ( m - 1 ) / 2 ;
+            if ( before( array[ parent ] , array[ m ] , min ) )
+                swap( m , parent ) ;
+            i = m ;
+        }
+    }
+
+    /**
+     * Finds the smallest (or largest) of a node's children and
+     * grandchildren.
+     * @param i the index of the node; it must have a child.
+     * @param min true to find the smallest, false to find the largest.
+     * @return the index of the most extreme descendant.
+     */
+    private int extremeDescendant( int i , boolean min )
+    {
+        int best = 2 * i + 1 ;
+        if ( best + 1 < currentSize 
+                && before( array[ best + 1 ] , array[ best ] , min ) )
+            best = best + 1 ;
+        int end = Math.min( 4 * i + 7 , currentSize ) ;
+        for ( int c = 4 * i + 3 ; c < end ; c++ )  //Grandchildren
+            if ( before( array[ c ] , array[ best ] , min ) )
+                best = c ;
+        return best ;
+    }
+
+    /**
+     * Swaps two values of the heap.
+     * @param i one index.
+     * @param j the other index.
+     */
+    private void swap( int i , int j )
+    {
+        AnyType temp = array[ i ] ;
+        array[ i ] = array[ j ] ;
+        array[ j ] = temp ;
+    }
+}
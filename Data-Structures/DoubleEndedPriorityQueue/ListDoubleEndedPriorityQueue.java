@@ -1,9 +1,16 @@
 package cop3530;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Represents a Double Ended Priority Queue as a linked list.
+ * Represents a Double Ended Priority Queue as a linked list. The list is
+ * also a skip list: some nodes carry links to later nodes on higher levels,
+ * so add finds its place in expected O( log n ) instead of walking from
+ * first. deleteMin and deleteMax still take first and last in O( 1 ), only
+ * unlinking the few levels the node is on.
  * @author Aqib Shah
  */
 public class ListDoubleEndedPriorityQueue< AnyType > 
@@ -19,6 +26,8 @@ public class ListDoubleEndedPriorityQueue< AnyType >
         private AnyType data ;
         Node < AnyType > prev ;
         Node < AnyType > next ;
+        Node < AnyType > [ ] skipPrev ;     //Links on levels 1 and up,
+        Node < AnyType > [ ] skipNext ;     //null for a level 0 node
         
         /**
          * Constructs a node with a previous and next node along with the 
@@ -33,12 +42,33 @@ public class ListDoubleEndedPriorityQueue< AnyType >
             prev = p ;
             next = n ;
         }
+        
+        /**
+         * Gives the node links on levels 1 to height - 1.
+         * @param height the number of levels the node is on.
+         */
+        void setHeight( int height )
+        {
+            if ( height > 1 )
+            {
+                skipPrev = new Node[ height - 1 ] ;
+                skipNext = new Node[ height - 1 ] ;
+            }
+        }
     }
     //--------------------------------------------------------------------------
 
+    private static final int MAX_LEVEL = 16 ;   //Enough for 4^16 nodes
+
     private Comparator < ? super AnyType > cmp ;
     private Node < AnyType > first ;   
     private Node < AnyType > last ;     
+    private int theSize ;               //Number of nodes
+    private final Node < AnyType > [ ] heads = new Node[ MAX_LEVEL ] ;
+                                        //First node on each level above 0
+    private final Node < AnyType > [ ] update = new Node[ MAX_LEVEL ] ;
+                                        //Predecessors found by add
+    private int levels = 1 ;            //Levels in use
     
     /**
      * Constructor with null comparator.
@@ -79,48 +109,163 @@ public class ListDoubleEndedPriorityQueue< AnyType >
      */
     public void makeEmpty() 
     {
-        first = null ; last = null ; 
+        first = null ; last = null ; theSize = 0 ;
+        Arrays.fill( heads , null ) ;
+        levels = 1 ;
     }
 
     /**
-     * Adds a value to the list.
+     * Adds a value to the list, before the first node not smaller than it.
+     * The search starts on the highest level and drops a level each time
+     * the next node there is not smaller, remembering where it dropped.
      * @param x the value to be added.
      */
     public void add( AnyType x ) 
     {
-        Node temp = new Node ( x , null , null ) ;
-        
-        if ( last == null && first == null )        //Empty
-            first = last = temp ;
+        Node < AnyType > pred = null ;          //null means before first
+        for ( int level = levels - 1 ; level > 0 ; level-- )
+        {
+            Node < AnyType > n = ( pred == null ) ? heads[ level ]
+                                                  : pred.skipNext[ level - 1 ] ;
+            while ( n != null && myCompare( n.data , x ) < 0 )
+            {
+                pred = n ;
+                n = n.skipNext[ level - 1 ] ;
+            }
+            update[ level ] = pred ;
+        }
+        Node < AnyType > n = ( pred == null ) ? first : pred.next ;
+        while ( n != null && myCompare( n.data , x ) < 0 )
+        {
+            pred = n ;
+            n = n.next ;
+        }
+
+        Node < AnyType > temp = new Node<>( x , pred , n ) ;
+        if ( pred == null )
+            first = temp ;
+        else
+            pred.next = temp ;
+        if ( n == null )
+            last = temp ;
         else
+            n.prev = temp ;
+        theSize++ ;
+
+        int height = randomHeight( ) ;
+        temp.setHeight( height ) ;
+        for ( int level = 1 ; level < height ; level++ )
+            linkAfter( ( level < levels ) ? update[ level ] : null , temp ,
+                       level ) ;
+        levels = Math.max( levels , height ) ;
+    }
+
+    /**
+     * Adds every value of a collection. The values are sorted first and then
+     * merged into the list in a single pass, so adding m values to a list of
+     * n costs O( m log m + n ) instead of O( m n ).
+     * @param items the values to be added.
+     */
+    public void addAll( Collection < ? extends AnyType > items )
+    {
+        AnyType [ ] sorted = ( AnyType [ ] ) items.toArray( ) ;
+        Arrays.sort( sorted , this::myCompare ) ;
+        
+        Node < AnyType > current = first ;   //First node not before x
+        for ( AnyType x : sorted )
         {
-            Node head = first ;                     //Not Empty
-            int compareResult = myCompare( x , ( AnyType ) first.data ) ;
+            while ( current != null && myCompare( x , current.data ) > 0 )
+                current = current.next ;
             
-            if ( compareResult <= 0 )    //Before first node
+            if ( current == null )            //After last node
             {
-                temp.next = first ;     //Note: temp.prev already null
-                first.prev = temp ; first = temp ;
+                Node < AnyType > temp = new Node<>( x , last , null ) ;
+                temp.setHeight( randomHeight( ) ) ;
+                if ( last == null )
+                    first = temp ;
+                else
+                    last.next = temp ;
+                last = temp ;
             }
-            else                         //After first node 
+            else                              //Before current
             {
-                while ( head.next != null )
-                {
-                    Node current = head.next ;
-                    AnyType currentData = ( AnyType ) current.data ;
-                    
-                    if ( myCompare ( x , currentData ) <= 0 )
-                    {
-                        head.next = temp ; temp.prev = head ;
-                        current.prev = temp ; temp.next = current ;
-                        return ;
-                    } 
-                    head = head.next ;
-                }
-                last.next = new Node ( x , last , null ) ;
-                last = last.next ;
+                Node < AnyType > temp = new Node<>( x , current.prev ,
+                                                    current ) ;
+                temp.setHeight( randomHeight( ) ) ;
+                if ( current.prev == null )
+                    first = temp ;
+                else
+                    current.prev.next = temp ;
+                current.prev = temp ;
             }
         }
+        theSize += sorted.length ;
+        if ( sorted.length > 0 )
+            rebuildIndex( ) ;
+    }
+
+    /**
+     * Relinks every level above 0 in one pass over the list, after addAll
+     * has merged in new nodes that are not yet linked there.
+     */
+    private void rebuildIndex( )
+    {
+        Arrays.fill( heads , null ) ;
+        Node < AnyType > [ ] tails = update ;   //Last node so far per level
+        Arrays.fill( tails , null ) ;
+        levels = 1 ;
+        for ( Node < AnyType > t = first ; t != null ; t = t.next )
+        {
+            if ( t.skipNext == null )
+                continue ;
+            int height = t.skipNext.length + 1 ;
+            for ( int level = 1 ; level < height ; level++ )
+            {
+                Node < AnyType > p = tails[ level ] ;
+                t.skipPrev[ level - 1 ] = p ;
+                t.skipNext[ level - 1 ] = null ;
+                if ( p == null )
+                    heads[ level ] = t ;
+                else
+                    p.skipNext[ level - 1 ] = t ;
+                tails[ level ] = t ;
+            }
+            levels = Math.max( levels , height ) ;
+        }
+    }
+
+    /**
+     * Picks how many levels a new node is on: each level above 0 with
+     * probability 1/4 of the one below, so most nodes get no links beyond
+     * prev and next.
+     * @return the height, 1 to MAX_LEVEL.
+     */
+    private static int randomHeight( )
+    {
+        int bits = ThreadLocalRandom.current( ).nextInt( ) ;
+        return Math.min( 1 + Integer.numberOfTrailingZeros( bits ) / 2 ,
+                         MAX_LEVEL ) ;
+    }
+
+    /**
+     * Links a node into one level above 0, just after a given node.
+     * @param pred the node before it on that level, or null for the head.
+     * @param t the node.
+     * @param level the level.
+     */
+    private void linkAfter( Node < AnyType > pred , Node < AnyType > t ,
+                            int level )
+    {
+        Node < AnyType > n = ( pred == null ) ? heads[ level ]
+                                              : pred.skipNext[ level - 1 ] ;
+        t.skipPrev[ level - 1 ] = pred ;
+        t.skipNext[ level - 1 ] = n ;
+        if ( n != null )
+            n.skipPrev[ level - 1 ] = t ;
+        if ( pred == null )
+            heads[ level ] = t ;
+        else
+            pred.skipNext[ level - 1 ] = t ;
     }
 
     /**
@@ -134,7 +279,16 @@ public class ListDoubleEndedPriorityQueue< AnyType >
         {
             throw new UnderflowException( ) ;
         }
+        theSize-- ;
         AnyType data = first.data ;
+        if ( first.skipNext != null )
+            for ( int level = 1 ; level <= first.skipNext.length ; level++ )
+            {                       //first is first on its levels
+                Node < AnyType > n = first.skipNext[ level - 1 ] ;
+                heads[ level ] = n ;
+                if ( n != null )
+                    n.skipPrev[ level - 1 ] = null ;
+            }
         if ( first.next != null )   //More than one node
         {
             first = first.next ; first.prev = null ;
@@ -158,7 +312,17 @@ public class ListDoubleEndedPriorityQueue< AnyType >
         {
             throw new UnderflowException( ) ;
         }
+        theSize-- ;
         AnyType data = last.data ;
+        if ( last.skipPrev != null )
+            for ( int level = 1 ; level <= last.skipPrev.length ; level++ )
+            {                       //last is last on its levels
+                Node < AnyType > p = last.skipPrev[ level - 1 ] ;
+                if ( p == null )
+                    heads[ level ] = null ;
+                else
+                    p.skipNext[ level - 1 ] = null ;
+            }
         if ( last.prev != null )
         {
             last = last.prev ;
@@ -191,6 +355,15 @@ public class ListDoubleEndedPriorityQueue< AnyType >
         return last.data ;
     }
     
+    /**
+     * Returns the number of values on the list.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return theSize ;
+    }
+    
     /**
      * Checks whether the list empty or not.
      * @return whether the list is empty.
@@ -0,0 +1,327 @@
+package cop3530;
+
+import java.util.Arrays;
+
+/**
+ * Represents a Double Ended Priority Queue of primitive longs, such as
+ * deadlines, as a min-max heap in a long array. It works like
+ * HeapDoubleEndedPriorityQueue and has the same method names, but values
+ * are never boxed and are compared with &lt; and &gt; instead of a
+ * Comparator. It cannot implement DoubleEndedPriorityQueue, whose methods
+ * take and return objects.
+ * @author Aqib Shah
+ */
+public class LongDoubleEndedPriorityQueue
+{
+    private static final int DEFAULT_CAPACITY = 16 ;
+
+    private long [ ] array ;                            //The heap
+    private int currentSize ;                           //Number of items
+
+    /**
+     * Constructs an empty heap.
+     */
+    public LongDoubleEndedPriorityQueue ( )
+    {
+        makeEmpty( ) ;
+    }
+
+    /**
+     * Clears the contents of the heap.
+     */
+    public void makeEmpty( )
+    {
+        array = new long[ DEFAULT_CAPACITY ] ;
+        currentSize = 0 ;
+    }
+
+    /**
+     * Adds a value to the heap.
+     * @param x value to be added.
+     */
+    public void add ( long x )
+    {
+        if ( currentSize == array.length )
+            array = Arrays.copyOf( array , array.length * 2 ) ;
+        array[ currentSize ] = x ;
+        bubbleUp( currentSize++ ) ;
+    }
+
+    /**
+     * Adds every value of an array, rebuilding the heap bottom-up in O( n )
+     * when the batch is at least as big as the heap.
+     * @param items the values to be added.
+     */
+    public void addAll( long [ ] items )
+    {
+        if ( items.length < currentSize )
+        {
+            for ( long x : items )
+                add( x ) ;
+            return ;
+        }
+
+        int newSize = currentSize + items.length ;
+        if ( newSize > array.length )
+            array = Arrays.copyOf( array , Math.max( newSize ,
+                                                     array.length * 2 ) ) ;
+        System.arraycopy( items , 0 , array , currentSize , items.length ) ;
+        currentSize = newSize ;
+        for ( int i = currentSize / 2 - 1 ; i >= 0 ; i-- )
+            trickleDown( i , isMinLevel( i ) ) ;
+    }
+
+    /**
+     * Deletes the minimum value, the root.
+     * @return the minimum value.
+     * @throws UnderflowException if called for an empty heap.
+     */
+    public long deleteMin( ) throws UnderflowException
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return removeAt( 0 ) ;
+    }
+
+    /**
+     * Deletes the maximum value, the larger child of the root.
+     * @return the maximum value.
+     * @throws UnderflowException if called for an empty heap.
+     */
+    public long deleteMax( ) throws UnderflowException
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return removeAt( maxIndex( ) ) ;
+    }
+
+    /**
+     * Deletes the k smallest values, or all of them if there are fewer.
+     * @param k the most values to delete.
+     * @return the values deleted, smallest first.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public long [ ] drainMin( int k )
+    {
+        if ( k < 0 )
+            throw new IllegalArgumentException( "k must not be negative: "
+                                                + k ) ;
+        long [ ] result = new long[ Math.min( k , currentSize ) ] ;
+        for ( int i = 0 ; i < result.length ; i++ )
+            result[ i ] = removeAt( 0 ) ;
+        return result ;
+    }
+
+    /**
+     * Deletes the k largest values, or all of them if there are fewer.
+     * @param k the most values to delete.
+     * @return the values deleted, largest first.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public long [ ] drainMax( int k )
+    {
+        if ( k < 0 )
+            throw new IllegalArgumentException( "k must not be negative: "
+                                                + k ) ;
+        long [ ] result = new long[ Math.min( k , currentSize ) ] ;
+        for ( int i = 0 ; i < result.length ; i++ )
+            result[ i ] = removeAt( maxIndex( ) ) ;
+        return result ;
+    }
+
+    /**
+     * Finds the value that is the minimum.
+     * @return the minimum value.
+     * @throws UnderflowException if called for an empty heap.
+     */
+    public long findMin( )
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return array[ 0 ] ;
+    }
+
+    /**
+     * Finds the value that is the maximum.
+     * @return the maximum value.
+     * @throws UnderflowException if called for an empty heap.
+     */
+    public long findMax( )
+    {
+        if ( isEmpty( ) )
+            throw new UnderflowException( ) ;
+        return array[ maxIndex( ) ] ;
+    }
+
+    /**
+     * Returns the number of values in the heap.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return currentSize ;
+    }
+
+    /**
+     * Checks whether the heap is empty.
+     * @return whether heap is empty or not.
+     */
+    public boolean isEmpty( )
+    {
+        return currentSize == 0 ;
+    }
+
+    /**
+     * Provides a string representation of the heap, in sorted order.
+     * @return a a printable string.
+     */
+    public String toString()
+    {
+        long [ ] sorted = Arrays.copyOf( array , currentSize ) ;
+        Arrays.sort( sorted ) ;
+        StringBuilder sb = new StringBuilder() ;
+        sb.append( "[  " ) ;
+        for ( long x : sorted )
+        {
+            sb.append( x ) ;
+            sb.append( ", " ) ;
+        }
+        sb.setLength( sb.length() - 2 ) ;
+        sb.append( "  ]" ) ;
+        return new String ( sb ) ;
+    }
+
+    /**
+     * Finds where the maximum is: the root if it is alone, else the larger
+     * of its children.
+     * @return the index of the maximum.
+     */
+    private int maxIndex( )
+    {
+        if ( currentSize == 1 )
+            return 0 ;
+        if ( currentSize == 2 || array[ 1 ] >= array[ 2 ] )
+            return 1 ;
+        return 2 ;
+    }
+
+    /**
+     * Removes the value at a given index, filling the gap with the last
+     * value and moving that value down to its place.
+     * @param i the index, either the minimum's or the maximum's.
+     * @return the value removed.
+     */
+    private long removeAt( int i )
+    {
+        long x = array[ i ] ;
+        array[ i ] = array[ --currentSize ] ;
+        if ( i < currentSize )
+            trickleDown( i , isMinLevel( i ) ) ;
+        return x ;
+    }
+
+    /**
+     * Determines whether an index is on a min (even) level.
+     * @param i the index.
+     * @return true for a min level, false for a max level.
+     */
+    private static boolean isMinLevel( int i )
+    {
+        return ( 31 - Integer.numberOfLeadingZeros( i + 1 ) ) % 2 == 0 ;
+    }
+
+    /**
+     * Tests whether a value should be above another on a level of the given
+     * kind.
+     * @param a one value.
+     * @param b the other value.
+     * @param min true for a min level, false for a max level.
+     * @return true if a is smaller (min) or larger (max) than b.
+     */
+    private static boolean before( long a , long b , boolean min )
+    {
+        return min ? a < b : a > b ;
+    }
+
+    /**
+     * Moves a newly added value up to its place. It first decides whether
+     * the value belongs among the min levels or the max levels by comparing
+     * it with its parent, then climbs only levels of that kind.
+     * @param i the index of the new value.
+     */
+    private void bubbleUp( int i )
+    {
+        if ( i == 0 )
+            return ;
+        int parent = ( i - 1 ) / 2 ;
+        boolean min = isMinLevel( i ) ;
+        if ( before( array[ parent ] , array[ i ] , min ) )
+        {
+            swap( i , parent ) ;
+            bubbleUp( parent , !min ) ;
+        }
+        else
+            bubbleUp( i , min ) ;
+    }
+
+    /**
+     * Moves a value up by grandparents while it is out of order with them.
+     * @param i the index of the value.
+     * @param min true on min levels, false on max levels.
+     */
+    private void bubbleUp( int i , boolean min )
+    {
+        while ( i >= 3 )                            //Has a grandparent
+        {
+            int grandparent = ( ( i - 1 ) / 2 - 1 ) / 2 ;
+            if ( !before( array[ i ] , array[ grandparent ] , min ) )
+                return ;
+            swap( i , grandparent ) ;
+            i = grandparent ;
+        }
+    }
+
+    /**
+     * Moves a value down two levels at a time, swapping it with the most
+     * extreme of its children and grandchildren while that one belongs
+     * above it.
+     * @param i the index of the value.
+     * @param min true on min levels, false on max levels.
+     */
+    private void trickleDown( int i , boolean min )
+    {
+        while ( 2 * i + 1 < currentSize )           //Has a child
+        {
+            int m = 2 * i + 1 ;                     //Most extreme descendant
+            if ( m + 1 < currentSize && before( array[ m + 1 ] , array[ m ] ,
+                                                min ) )
+                m = m + 1 ;
+            int end = Math.min( 4 * i + 7 , currentSize ) ;
+            for ( int c = 4 * i + 3 ; c < end ; c++ )   //Grandchildren
+                if ( before( array[ c ] , array[ m ] , min ) )
+                    m = c ;
+
+            if ( !before( array[ m ] , array[ i ] , min ) )
+                return ;
+            swap( i , m ) ;
+            if ( m <= 2 * i + 2 )                   //A child; done
+                return ;
+            int parent = ( m - 1 ) / 2 ;
+            if ( before( array[ parent ] , array[ m ] , min ) )
+                swap( m , parent ) ;
+            i = m ;
+        }
+    }
+
+    /**
+     * Swaps two values of the heap.
+     * @param i one index.
+     * @param j the other index.
+     */
+    private void swap( int i , int j )
+    {
+        long temp = array[ i ] ;
+        array[ i ] = array[ j ] ;
+        array[ j ] = temp ;
+    }
+}
@@ -1,16 +1,26 @@
 package cop3530;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Represents a Double Ended Priority Queue as a binary tree.
+ * Represents a Double Ended Priority Queue as a binary tree. The tree is not
+ * balanced, so every walk down it is a loop rather than a recursion: a
+ * degenerate tree, such as one built from sorted input, is slow but never
+ * overflows the stack.
  * @author Aqib Shah
  * @param <AnyType> Generic type.
  */
 public class TreeDoubleEndedPriorityQueue< AnyType > implements 
-        DoubleEndedPriorityQueue < AnyType > 
+        DoubleEndedPriorityQueue < AnyType > , Iterable < AnyType >
 {
     
     //--------------------------------------------------------------------------
@@ -54,6 +64,7 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
     
     private Comparator < ? super AnyType > cmp ;        //Comparator
     private Node < AnyType > root ;                     //Root node
+    private int theSize ;                               //Number of values
     
     /**
      * Constructs an binary tree with a null comparator.
@@ -92,6 +103,7 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
     public void makeEmpty( ) 
     {
         root = null ;
+        theSize = 0 ;
     }
     
     /**
@@ -100,6 +112,7 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
      */
     public void add ( AnyType x ) 
     {
+        theSize++ ;
         Node temp = new Node ( x ) ;
         if ( root == null )
             root = temp ;
@@ -108,30 +121,40 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
     }
     
     /**
-     * Recursively finds the correct position for a given value and adds it 
-     * to the tree.
-     * @param src the node being compared.
+     * Walks down from a node to the correct position for a given value and
+     * adds it to the tree.
+     * @param src the node to start from.
      * @param t the node with the value being added.
      */
     private void add ( Node < AnyType > src , Node < AnyType > t )
     {
-        int compResult = myCompare ( t.items.data , src.items.data ) ;
-
-        if ( compResult < 0 )
-            if ( src.left == null )
-                src.left = t ;
-            else
-                add( src.left , t ) ;
-        else if ( compResult >  0 )
-            if ( src.right == null )
-                src.right = t ;
-            else
-                add( src.right , t ) ;
-        else    //compResult == 0
+        while ( true )
         {
-            Node.ListNode temp = src.items ;
-            src.items = t.items ;
-            src.items.next = temp ;
+            int compResult = myCompare ( t.items.data , src.items.data ) ;
+
+            if ( compResult < 0 )
+                if ( src.left == null )
+                {
+                    src.left = t ;
+                    return ;
+                }
+                else
+                    src = src.left ;
+            else if ( compResult >  0 )
+                if ( src.right == null )
+                {
+                    src.right = t ;
+                    return ;
+                }
+                else
+                    src = src.right ;
+            else    //compResult == 0
+            {
+                Node.ListNode temp = src.items ;
+                src.items = t.items ;
+                src.items.next = temp ;
+                return ;
+            }
         }
     }
     
@@ -144,6 +167,7 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
     {
         if ( root == null )
             throw new UnderflowException( ) ;
+        theSize-- ;
         if ( root.left == null )    //root is smallest
         {
             AnyType x = ( AnyType ) root.items.data ;
@@ -156,33 +180,30 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
             return x ;
         }
         else
-            return ( AnyType ) deleteMin( root ) ;  //Recursive method
+            return ( AnyType ) deleteMin( root ) ;
     }
     
     /**
-     * Recursively finds the minimum and deletes it from the tree.
-     * @param src the node being compared.
+     * Finds the minimum below a node and deletes it from the tree.
+     * @param src a node with a left child.
      * @return the value being deleted.
      */
     private AnyType deleteMin( Node< AnyType > src )
     {
-        if ( src.left.left != null )            //If not at left-most node
-            return deleteMin( src.left ) ;      //Continue to traverse...
-        else
+        while ( src.left.left != null )         //If not at left-most node
+            src = src.left ;                    //Continue to traverse...
+        AnyType data = ( AnyType ) src.left.items.data ;    //Save data
+        if ( src.left.items.next == null )      //If no dups
         {
-            AnyType data = ( AnyType ) src.left.items.data ;    //Save data
-            if ( src.left.items.next == null )  //If no dups
-            {
-                if ( src.left.right == null  )  //If no right subtree
-                    src.left = null ;           //Remove entirely
-                else
-                    src.left = src.left.right ; //Make it right subtree 
-            }
-            else                                //Yes, duplicates
-                src.left.items = src.left.items.next ;  //Remove one.
-            
-            return data ;
+            if ( src.left.right == null  )      //If no right subtree
+                src.left = null ;               //Remove entirely
+            else
+                src.left = src.left.right ;     //Make it right subtree 
         }
+        else                                    //Yes, duplicates
+            src.left.items = src.left.items.next ;  //Remove one.
+        
+        return data ;
     }
     
     /**
@@ -194,6 +215,7 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
     {
         if ( root == null )
             throw new UnderflowException( ) ;
+        theSize-- ;
         if ( root.right == null )    //root is largest
         {
             AnyType x = ( AnyType ) root.items.data ;
@@ -211,29 +233,26 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
     }
     
     /**
-     * Recursively finds the maximum and deletes it from the tree.
-     * @param src the node being compared.
+     * Finds the maximum below a node and deletes it from the tree.
+     * @param src a node with a right child.
      * @return the value being deleted.
      */
     private AnyType deleteMax( Node < AnyType > src )
     {
-        if ( src.right.right != null )
-            return deleteMax( src.right ) ;
-        else
+        while ( src.right.right != null )
+            src = src.right ;
+        AnyType data = ( AnyType ) src.right.items.data ;
+        if ( src.right.items.next == null )     //If no duplicates
         {
-            AnyType data = ( AnyType ) src.right.items.data ;
-            if ( src.right.items.next == null )     //If no duplicates
-            {
-                if ( src.right.left == null  )      //If no left subtree
-                    src.right = null ;              //Remove entirely
-                else
-                    src.right = src.right.left ;    //Make it left subtree
-            }
+            if ( src.right.left == null  )      //If no left subtree
+                src.right = null ;              //Remove entirely
             else
-                src.right.items = src.right.items.next ;    //Yes duplicate
-                                                            //Remove one
-            return data ;
+                src.right = src.right.left ;    //Make it left subtree
         }
+        else
+            src.right.items = src.right.items.next ;    //Yes duplicate
+                                                        //Remove one
+        return data ;
     }
     
     /**
@@ -261,6 +280,10 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
     public AnyType findMax( )   
     {
         Node temp = root ;
+        if ( temp == null )
+        {
+            throw new UnderflowException( ) ;
+        }
         while ( temp.right != null ) //Continue to go right,
         {
             temp = temp.right ;
@@ -268,6 +291,15 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
         return ( AnyType ) temp.items.data ;    //return right most node.
     }
     
+    /**
+     * Returns the number of values in the tree, duplicates included.
+     * @return the size.
+     */
+    public int size( )
+    {
+        return theSize ;
+    }
+    
     /**
      * Checks whether the tree is empty.
      * @return whether tree is empty or not.
@@ -278,42 +310,128 @@ public class TreeDoubleEndedPriorityQueue< AnyType > implements
     }
 
     /**
-     * Provides a string representation of the tree.
+     * Provides a string representation of the tree, in ascending order.
      * @return a a printable string.
      */
     public String toString() 
     {
         StringBuilder sb = new StringBuilder() ;
         sb.append( "[  " ) ;
-        toString ( root , sb ) ;
+        for ( AnyType x : this )
+        {
+            sb.append( x ) ;
+            sb.append( ", " ) ;
+        }
         sb.setLength( sb.length() - 2 ) ;
         sb.append( "  ]" ) ;
         return new String ( sb ) ;
     }
     
     /**
-     * Private routine to build a string to represent the tree.
-     * @param t the current node being observed.
-     * @param sb a StringBuilder object that will be used to construct the 
-     * String.
+     * An iterator over the values in ascending order, duplicates included.
+     * The tree must not be changed while it is in use.
+     * @return an Iterator.
      */
-    private void toString( Node < AnyType > t , StringBuilder sb )
-    {  
-        if ( t == null )
-            return ;
+    public Iterator < AnyType > iterator( )
+    {
+        return new TreeIterator( true ) ;
+    }
+    
+    /**
+     * An iterator over the values in descending order, duplicates included.
+     * The tree must not be changed while it is in use.
+     * @return an Iterator.
+     */
+    public Iterator < AnyType > descendingIterator( )
+    {
+        return new TreeIterator( false ) ;
+    }
+    
+    /**
+     * Returns a sequential Stream of the values in ascending order. Values
+     * are produced as the stream pulls them, without a copy of the tree.
+     * @return a Stream.
+     */
+    public Stream < AnyType > stream( )
+    {
+        return stream( iterator( ) ) ;
+    }
+    
+    /**
+     * Returns a sequential Stream of the values in descending order.
+     * @return a Stream.
+     */
+    public Stream < AnyType > descendingStream( )
+    {
+        return stream( descendingIterator( ) ) ;
+    }
+    
+    /**
+     * Wraps an iterator over the tree in a Stream.
+     * @param itr the iterator.
+     * @return a Stream.
+     */
+    private Stream < AnyType > stream( Iterator < AnyType > itr )
+    {
+        return StreamSupport.stream( Spliterators.spliterator( itr , theSize ,
+                Spliterator.ORDERED | Spliterator.NONNULL ) , false ) ;
+    }
+    
+    //--------------------------------------------------------------------------
+    /**
+     * Walks the tree in order with an explicit stack of the nodes still to
+     * visit, so a degenerate tree costs heap space rather than call stack.
+     * Each node's duplicates are returned before moving on.
+     */
+    private class TreeIterator implements Iterator < AnyType >
+    {
+        private final ArrayDeque < Node < AnyType > > path ;  //Still to visit
+        private final boolean ascending ;                     //Direction
+        private Node.ListNode < AnyType > dup ;               //Next duplicate
         
-        toString ( t.left , sb ) ;
-        sb.append ( t.items.data ) ;
-        sb.append (", ") ;
-        Node.ListNode temp = t.items ;
-        while ( temp.next != null )
+        /**
+         * Constructs an iterator positioned before the first value.
+         * @param asc true for ascending order, false for descending.
+         */
+        public TreeIterator( boolean asc )
         {
-            temp = temp.next ;
-            sb.append( temp.data ) ;
-            sb.append ( ", " ) ;
+            path = new ArrayDeque<>( ) ;
+            ascending = asc ;
+            pushSpine( root ) ;
+        }
+        
+        public boolean hasNext( )
+        {
+            return dup != null || !path.isEmpty( ) ;
+        }
+        
+        public AnyType next( )
+        {
+            if ( dup == null )
+            {
+                if ( path.isEmpty( ) )
+                    throw new NoSuchElementException( ) ;
+                Node < AnyType > t = path.pop( ) ;
+                dup = t.items ;
+                pushSpine( ascending ? t.right : t.left ) ;
+            }
+            AnyType x = dup.data ;
+            dup = dup.next ;
+            return x ;
+        }
+        
+        /**
+         * Pushes a node and its chain of left children (right children when
+         * descending).
+         * @param t the node, or null.
+         */
+        private void pushSpine( Node < AnyType > t )
+        {
+            for ( ; t != null ; t = ascending ? t.left : t.right )
+                path.push( t ) ;
         }
-        toString ( t.right , sb ) ;
     }
+    //--------------------------------------------------------------------------
     
     /*    
     public void printTree( )
@@ -0,0 +1,492 @@
+package cop3530;
+
+import java.util.concurrent.TimeUnit;
+/**
+ *
+ * File: CacheMyHashMap.java
+ *
+ * The purpose of this class is to implement a size-bounded hash map for use
+ * as a cache. Keys are stored the same way as in MyHashMap: each key goes to
+ * the shorter of its two candidate lists. Once the total weight of the
+ * entries passes the limit, entries are evicted with the CLOCK algorithm:
+ * every entry sits on a ring, a get marks its entry as referenced, and the
+ * clock hand sweeps the ring, giving referenced entries a second chance and
+ * evicting the first entry that has not been used since the hand last passed.
+ * Entries can also be given a time to live, after which they are dropped.
+ *
+ * @author Aqib
+ * @param <KeyType> A generic key.
+ * @param <ValueType> A generic value.
+ */
+public class CacheMyHashMap<KeyType,ValueType>
+{
+    private HashFunction<KeyType> hash1;                //Hash function 1
+    private HashFunction<KeyType> hash2;                //Hash function 2
+    private Node<KeyType, ValueType> [] arr = null;     //Hash Array
+    private int [ ] lengths = null;                     //List sizes of arr
+    private Node<KeyType, ValueType> hand = null;       //Next to sweep
+    private int theSize;                                //Number of items
+    private long theWeight;                             //Total weight
+    private final long maxWeight;                       //Weight limit
+    private final Weigher<KeyType, ValueType> weigher;  //Weighs an entry
+    private final long timeToLive;                      //Nanos; 0 is forever
+    private long hits;                                  //Gets that found
+    private long misses;                                //Gets that missed
+    private long evictions;                             //Dropped for room
+    private long expirations;                           //Dropped for age
+    private static final int DEFAULT_ARR_SIZE = 11 ;    //Array size
+
+    /**
+     * Gives the weight of an entry, such as its size in bytes.
+     */
+    public interface Weigher<KeyType, ValueType>
+    {
+        int weigh( KeyType k, ValueType v ) ;     //Must not be negative
+    }
+
+    /**
+     * Constructor that creates a cache holding at most maxSize entries, which
+     * never expire.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     * @param maxSize the most entries to keep.
+     */
+    public CacheMyHashMap( HashFunction<KeyType> h1, HashFunction<KeyType> h2,
+                           int maxSize )
+    {
+        this( h1, h2, maxSize, null, 0, TimeUnit.NANOSECONDS );
+    }
+
+    /**
+     * Constructor that creates a cache bounded by the total weight of its
+     * entries, whose entries expire a fixed time after they are put.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     * @param maxWeight the most total weight to keep.
+     * @param w weighs each entry, or null to count every entry as 1.
+     * @param timeToLive how long an entry lives after it is put, or 0 for
+     * entries that never expire.
+     * @param unit the unit of timeToLive.
+     */
+    public CacheMyHashMap( HashFunction<KeyType> h1, HashFunction<KeyType> h2,
+                           long maxWeight, Weigher<KeyType, ValueType> w,
+                           long timeToLive, TimeUnit unit )
+    {
+        if ( maxWeight < 0 )
+            throw new IllegalArgumentException( "Negative weight: "
+                                                + maxWeight );
+        if ( timeToLive < 0 )
+            throw new IllegalArgumentException( "Negative time to live: "
+                                                + timeToLive );
+        hash1 = h1;            //initialize instance var's
+        hash2 = h2;
+        this.maxWeight = maxWeight;
+        weigher = w;
+        this.timeToLive = unit.toNanos( timeToLive );
+        doClear( );
+    }
+
+    /**
+     * Get method the size of the cache.
+     * @return the number of entries in the cache.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * @return the total weight of the entries in the cache.
+     */
+    public long weight( )
+    {
+        return theWeight;
+    }
+
+    /**
+     * Clears the cache. The counters are kept.
+     */
+    public void clear( )
+    {
+        doClear( );
+    }
+
+    /**
+     * Clears the array; resets size, weight and the clock.
+     */
+    private void doClear( )
+    {
+        theSize = 0;
+        theWeight = 0;
+        hand = null;
+        arr = new Node[ DEFAULT_ARR_SIZE ];
+        lengths = new int[ DEFAULT_ARR_SIZE ];
+    }
+
+    /**
+     * Adds a key to the cache. If the key is already present, its value is
+     * replaced and its time to live starts over. Entries are then evicted
+     * until the cache is back within its weight limit; an entry heavier than
+     * the whole limit is not kept at all.
+     * @param k the key.
+     * @param v the value.
+     * @return the value being overwritten. If no value is being overwritten,
+     * null is returned.
+     */
+    public ValueType put( KeyType k, ValueType v )
+    {
+        if ( theSize > arr.length )     //If the number of items are getting
+            rehash( );                  //too high then, rehash.
+
+        int code1 = hash1.hashCode( k );
+        int code2 = hash2.hashCode( k );
+        int w = ( weigher == null ) ? 1 : weigher.weigh( k, v );
+        long expires = ( timeToLive == 0 ) ? 0 : System.nanoTime( )
+                                                 + timeToLive;
+        Node<KeyType, ValueType> contains = findNode( k, code1, code2 );
+        ValueType val = null;
+
+        if ( contains == null )
+        {
+            contains = new Node<>( k, v, code1, code2, w, expires );
+            link( contains );
+            joinRing( contains );
+            theSize++;
+            theWeight += w;
+        }
+        else
+        {
+            val = expired( contains ) ? null : contains.value;
+            contains.value = v;
+            contains.expires = expires;
+            theWeight += w - contains.weight;
+            contains.weight = w;
+        }
+
+        evict( );
+        return val;
+    }
+
+    /**
+     * Returns the value of a given key and marks the entry as recently used.
+     * An expired entry is removed and counts as a miss.
+     * @param k the key.
+     * @return the value, or null if the key is not present.
+     */
+    public ValueType get( KeyType k )
+    {
+        Node<KeyType, ValueType> contains
+                = findNode( k, hash1.hashCode( k ), hash2.hashCode( k ) );
+        if ( contains != null && expired( contains ) )
+        {
+            removeNode( contains );
+            expirations++;
+            contains = null;
+        }
+        if ( contains == null )
+        {
+            misses++;
+            return null;
+        }
+        hits++;
+        contains.referenced = true;
+        return contains.value;
+    }
+
+    /**
+     * Removes a specific key from the cache.
+     * @param k the key of the item being removed.
+     * @return true if the item is removed, else false.
+     */
+    public boolean remove( KeyType k )
+    {
+        Node<KeyType, ValueType> contains
+                = findNode( k, hash1.hashCode( k ), hash2.hashCode( k ) );
+        if ( contains == null )
+            return false;
+        removeNode( contains );
+        return true;
+    }
+
+    /**
+     * @return the number of gets that found their key.
+     */
+    public long getHits( )
+    {
+        return hits;
+    }
+
+    /**
+     * @return the number of gets that did not find their key.
+     */
+    public long getMisses( )
+    {
+        return misses;
+    }
+
+    /**
+     * @return the fraction of gets that found their key.
+     */
+    public double getHitRate( )
+    {
+        long total = hits + misses;
+        return ( total == 0 ) ? 0 : (double) hits / total;
+    }
+
+    /**
+     * @return the number of entries dropped to stay within the weight limit.
+     */
+    public long getEvictions( )
+    {
+        return evictions;
+    }
+
+    /**
+     * @return the number of entries dropped because they expired.
+     */
+    public long getExpirations( )
+    {
+        return expirations;
+    }
+
+    /**
+     * Sets all the counters back to zero.
+     */
+    public void resetStatistics( )
+    {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        expirations = 0;
+    }
+
+    /**
+     * Reduces a raw hash code to an index of an array of the given length.
+     * @param code the hash code from one of the hash functions.
+     * @param length the length of the array.
+     * @return the index.
+     */
+    private static int index( int code, int length )
+    {
+        return Math.abs( code % length );
+    }
+
+    /**
+     * Adds a Node to the front of the shorter of its two lists in the array.
+     * @param n the Node.
+     */
+    private void link( Node<KeyType, ValueType> n )
+    {
+        int hash1Result = index( n.code1, arr.length );
+        int hash2Result = index( n.code2, arr.length );
+        int index = ( lengths[ hash1Result ] <= lengths[ hash2Result ] )
+                ? hash1Result : hash2Result;
+        n.next = arr[ index ];
+        arr[ index ] = n;
+        lengths[ index ]++;
+    }
+
+    /**
+     * Finds the Node holding a key, checking both of its lists.
+     * @param k the key in question.
+     * @param code1 the key's code from the first hash function.
+     * @param code2 the key's code from the second hash function.
+     * @return the Node containing the key, or null if not found.
+     */
+    private Node<KeyType, ValueType> findNode( KeyType k, int code1,
+                                               int code2 )
+    {
+        Node<KeyType, ValueType> found
+                = listContains( arr[ index( code1, arr.length ) ], k, code1 );
+        if ( found == null )
+            found = listContains( arr[ index( code2, arr.length ) ], k,
+                                  code1 );
+        return found;
+    }
+
+    /**
+     * Determines if the list starting at a given Node contains a key, k.
+     * @param first the first Node of the list.
+     * @param k the key in question.
+     * @param code1 the key's code from the first hash function.
+     * @return the Node containing the key, or null if not found.
+     */
+    private Node<KeyType, ValueType> listContains(
+            Node<KeyType, ValueType> first, KeyType k, int code1 )
+    {
+        for ( Node<KeyType, ValueType> current = first; current != null;
+              current = current.next )
+            if ( current.code1 == code1 && k.equals( current.key ) )
+                return current;
+        return null;
+    }
+
+    /**
+     * Private routine that enlarges the array and relinks every Node using
+     * its saved hash codes. The clock ring is not changed.
+     */
+    private void rehash( )
+    {
+        Node<KeyType, ValueType> [] old = arr;
+        arr = new Node[ old.length * 4 ];
+        lengths = new int[ arr.length ];
+        for ( Node<KeyType, ValueType> curr : old )
+            while ( curr != null )
+            {
+                Node<KeyType, ValueType> next = curr.next;
+                link( curr );
+                curr = next;
+            }
+    }
+
+    /**
+     * Adds a Node to the ring just behind the hand, so it is the last Node
+     * the hand reaches.
+     * @param n the Node.
+     */
+    private void joinRing( Node<KeyType, ValueType> n )
+    {
+        if ( hand == null )
+        {
+            n.before = n;
+            n.after = n;
+            hand = n;
+        }
+        else
+        {
+            n.after = hand;
+            n.before = hand.before;
+            hand.before.after = n;
+            hand.before = n;
+        }
+    }
+
+    /**
+     * Removes a Node from both its list and the ring.
+     * @param n the Node.
+     */
+    private void removeNode( Node<KeyType, ValueType> n )
+    {
+        int index = index( n.code1, arr.length );
+        if ( !unlink( n, index ) )
+            unlink( n, index( n.code2, arr.length ) );
+
+        if ( n.after == n )                         //Last Node on the ring
+            hand = null;
+        else
+        {
+            if ( hand == n )
+                hand = n.after;
+            n.before.after = n.after;
+            n.after.before = n.before;
+        }
+        n.before = null;
+        n.after = null;
+        theSize--;
+        theWeight -= n.weight;
+    }
+
+    /**
+     * Removes a Node from one list, if it is there.
+     * @param n the Node.
+     * @param index the index of the list.
+     * @return true if the Node was found and removed, else false.
+     */
+    private boolean unlink( Node<KeyType, ValueType> n, int index )
+    {
+        Node<KeyType, ValueType> current = arr[ index ];
+        if ( current == n )                         //first node
+        {
+            arr[ index ] = n.next;
+            lengths[ index ]--;
+            return true;
+        }
+        while ( current != null && current.next != n ) //nodes after the first
+            current = current.next;
+        if ( current == null )
+            return false;
+        current.next = n.next;
+        lengths[ index ]--;
+        return true;
+    }
+
+    /**
+     * Sweeps the clock hand around the ring until the cache is within its
+     * weight limit. Expired Nodes are always dropped; referenced Nodes lose
+     * their mark and are passed over once; any other Node is evicted.
+     */
+    private void evict( )
+    {
+        while ( theWeight > maxWeight && hand != null )
+        {
+            Node<KeyType, ValueType> n = hand;
+            if ( expired( n ) )
+            {
+                removeNode( n );
+                expirations++;
+            }
+            else if ( n.referenced )
+            {
+                n.referenced = false;
+                hand = n.after;
+            }
+            else
+            {
+                removeNode( n );
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * @param n a Node.
+     * @return true if the Node has outlived its time to live.
+     */
+    private boolean expired( Node<KeyType, ValueType> n )
+    {
+        return n.expires != 0 && System.nanoTime( ) - n.expires > 0;
+    }
+
+    /**
+     * Represents the cache's entries and counters as a String.
+     * @return the String.
+     */
+    public String toString( )
+    {
+        StringBuilder sb = new StringBuilder( "[" );
+        Node<KeyType, ValueType> n = hand;
+        for ( int i = 0; i < theSize; i++, n = n.after )
+            sb.append( i == 0 ? "" : ", " ).append( n.key ).append( '=' )
+              .append( n.value );
+        return sb.append( "] hits=" ).append( hits ).append( " misses=" )
+                 .append( misses ).append( " evictions=" ).append( evictions )
+                 .append( " expirations=" ).append( expirations )
+                 .toString( );
+    }
+
+    /**
+     * Node class that comprises of a key and a value, the key's codes from
+     * both hash functions, and its place on the clock ring.
+     * @param <KeyType> represents a key.
+     * @param <ValueType> represents a value.
+     */
+    private static class Node<KeyType, ValueType>
+    {
+        KeyType key;
+        ValueType value;
+        final int code1;                        //hash1 code of the key
+        final int code2;                        //hash2 code of the key
+        int weight;                             //from the Weigher
+        long expires;                           //System.nanoTime, 0 is never
+        boolean referenced;                     //used since the hand passed
+        Node<KeyType, ValueType> next;          //next in the list
+        Node<KeyType, ValueType> before;        //previous on the ring
+        Node<KeyType, ValueType> after;         //next on the ring
+
+        Node( KeyType k, ValueType v, int c1, int c2, int w, long e )
+        {
+            key = k; value = v; code1 = c1; code2 = c2; weight = w;
+            expires = e;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ *
+ * File: Codec.java
+ *
+ * The purpose of this class is to provide an interface for turning keys and
+ * values into bytes and back, for the hash maps that store them outside the
+ * Java heap or on disk. Equal objects must encode to equal bytes.
+ */
+
+package cop3530 ;
+
+import java.nio.ByteBuffer ;
+import java.nio.charset.StandardCharsets ;
+
+public interface Codec<AnyType>
+{
+    int size(AnyType x) ;                       //Encoded length in bytes
+    void write(AnyType x, ByteBuffer buf) ;     //Write at buf's position
+    AnyType read(ByteBuffer buf, int length) ;  //Read from buf's position
+
+    /**
+     * Encodes Strings as UTF-8.
+     */
+    Codec<String> STRING = new Codec<String>( )
+    {
+        public int size( String x )
+        {
+            return x.getBytes( StandardCharsets.UTF_8 ).length ;
+        }
+
+        public void write( String x, ByteBuffer buf )
+        {
+            buf.put( x.getBytes( StandardCharsets.UTF_8 ) ) ;
+        }
+
+        public String read( ByteBuffer buf, int length )
+        {
+            byte [ ] bytes = new byte[ length ] ;
+            buf.get( bytes ) ;
+            return new String( bytes, StandardCharsets.UTF_8 ) ;
+        }
+    } ;
+
+    /**
+     * Encodes Integers as four bytes.
+     */
+    Codec<Integer> INTEGER = new Codec<Integer>( )
+    {
+        public int size( Integer x )
+        {
+            return 4 ;
+        }
+
+        public void write( Integer x, ByteBuffer buf )
+        {
+            buf.putInt( x ) ;
+        }
+
+        public Integer read( ByteBuffer buf, int length )
+        {
+            return buf.getInt( ) ;
+        }
+    } ;
+
+    /**
+     * Encodes Longs as eight bytes.
+     */
+    Codec<Long> LONG = new Codec<Long>( )
+    {
+        public int size( Long x )
+        {
+            return 8 ;
+        }
+
+        public void write( Long x, ByteBuffer buf )
+        {
+            buf.putLong( x ) ;
+        }
+
+        public Long read( ByteBuffer buf, int length )
+        {
+            return buf.getLong( ) ;
+        }
+    } ;
+}
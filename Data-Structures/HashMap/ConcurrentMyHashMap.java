@@ -0,0 +1,516 @@
+package cop3530;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+/**
+ *
+ * File: ConcurrentMyHashMap.java
+ *
+ * The purpose of this class is to implement a thread-safe hash map. It keeps
+ * the two-choice placement of MyHashMap (each key goes to the shorter of its
+ * two lists), but instead of one global lock the lists are guarded by a fixed
+ * set of striped locks: put and remove lock only the stripes of the key's two
+ * lists, and get takes no lock at all.
+ *
+ * A resize does not stop the writers either. It installs a larger array that
+ * keeps the old one beside it, and the buckets are then moved across a few at
+ * a time, each under its own stripe's lock: a writer first moves the old
+ * buckets of its own key, then helps with MIGRATE_STEP more. Until the move
+ * is done a lookup checks the old array before the new one. Every array
+ * length is a multiple of the number of stripes, so a key's two stripes are
+ * the same in both arrays, and a moved node stays on the stripe it was on.
+ *
+ * @author Aqib
+ * @param <KeyType> A generic key.
+ * @param <ValueType> A generic value.
+ */
+public class ConcurrentMyHashMap<KeyType,ValueType>
+{
+    private final HashFunction<KeyType> hash1;          //Hash function 1
+    private final HashFunction<KeyType> hash2;          //Hash function 2
+    private final ReentrantLock [ ] locks;              //Striped locks
+    private final Lock resizeLock = new ReentrantLock( ); //One resize at once
+    private volatile Table<KeyType, ValueType> table;   //Current hash array
+    private final AtomicInteger theSize = new AtomicInteger( ); //# of items
+    private static final int DEFAULT_ARR_SIZE = 11 ;    //Array size per stripe
+    private static final int DEFAULT_STRIPES = 64 ;     //Number of locks
+    private static final int MIGRATE_STEP = 16 ;        //Buckets moved per help
+
+    /**
+     * Constructor that creates Hash map with two separate hash functions.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     */
+    public ConcurrentMyHashMap( HashFunction<KeyType> h1,
+                                HashFunction<KeyType> h2 )
+    {
+        this( h1, h2, DEFAULT_STRIPES );
+    }
+
+    /**
+     * Constructor that creates Hash map with two separate hash functions and
+     * a given number of striped locks.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     * @param stripes the number of locks; roughly the number of writers that
+     * can proceed at once.
+     */
+    public ConcurrentMyHashMap( HashFunction<KeyType> h1,
+                                HashFunction<KeyType> h2, int stripes )
+    {
+        if ( stripes < 1 )
+            throw new IllegalArgumentException( "stripes must be positive" );
+        hash1 = h1;            //initialize instance var's
+        hash2 = h2;
+        locks = new ReentrantLock[ stripes ];
+        for ( int i = 0; i < stripes; i++ )
+            locks[ i ] = new ReentrantLock( );
+        table = new Table<>( DEFAULT_ARR_SIZE * stripes, null );
+    }
+
+    /**
+     * Get method the size of the hash map.
+     * @return the number of elements in the hash map.
+     */
+    public int size( )
+    {
+        return theSize.get( );
+    }
+
+    /**
+     * Clears the hash map. Resets the size.
+     */
+    public void clear( )
+    {
+        resizeLock.lock( );
+        lockAll( );
+        try
+        {
+            table = new Table<>( DEFAULT_ARR_SIZE * locks.length, null );
+            theSize.set( 0 );
+        }
+        finally
+        {
+            unlockAll( );
+            resizeLock.unlock( );
+        }
+    }
+
+    /**
+     * Adds a key to the hash map. If the key has already been added previously,
+     * then the previous value is replaced with the new.
+     * @param k the key.
+     * @param v the value.
+     * @return the value being overwritten. If no value is being overwritten,
+     * null is returned.
+     */
+    public ValueType put( KeyType k, ValueType v )
+    {
+        int code1 = hash1.hashCode( k );        //Find both hash codes.
+        int code2 = hash2.hashCode( k );
+        ValueType old;
+        int newSize = 0;                        //Size after adding, if added
+        Table<KeyType, ValueType> t;
+
+        for ( ;; )
+        {
+            t = table;
+            lockPair( code1, code2 );
+            try
+            {
+                if ( t != table )               //Resized while waiting
+                    continue;
+                moveOwnBuckets( t, code1, code2 );
+                int index1 = index( code1, t.length( ) );
+                int index2 = index( code2, t.length( ) );
+
+                Node<KeyType, ValueType> contains
+                        = t.find( k, code1, index1 );
+                if ( contains == null )
+                    contains = t.find( k, code1, index2 );
+
+                if ( contains != null )         //Some list contains
+                {
+                    old = contains.value;
+                    contains.value = v;
+                }
+                else                            //Neither contains
+                {
+                    int index = ( t.lengths[ index1 ] <= t.lengths[ index2 ] )
+                            ? index1 : index2;
+                    t.push( index, new Node<>( k, v, code1, code2,
+                                               t.buckets.get( index ) ) );
+                    old = null;
+                    newSize = theSize.incrementAndGet( );   //Under the lock,
+                                                            //as in remove
+                }
+            }
+            finally
+            {
+                unlockPair( code1, code2 );
+            }
+            break;
+        }
+
+        helpMove( t );
+        if ( newSize > t.length( ) )
+            rehash( );                  //Too many items--enlarge the array.
+        return old;
+    }
+
+    /**
+     * Returns the value of a given key without taking any lock. While a
+     * resize is moving buckets, the old array is checked first: a node is
+     * added to the new array before it leaves the old one, so it cannot be
+     * missed in between. If a new resize began during the lookup, it is done
+     * again.
+     * @param k the key.
+     * @return the value, or null if not found.
+     */
+    public ValueType get( KeyType k )
+    {
+        int code1 = hash1.hashCode( k );
+        int code2 = hash2.hashCode( k );
+        for ( ;; )
+        {
+            Table<KeyType, ValueType> t = table;
+            Table<KeyType, ValueType> old = t.old;
+            Node<KeyType, ValueType> contains = null;
+            if ( old != null )
+                contains = old.findEither( k, code1, code2 );
+            if ( contains == null )
+                contains = t.findEither( k, code1, code2 );
+            if ( contains != null )
+                return contains.value;
+            if ( t == table )
+                return null;
+        }
+    }
+
+    /**
+     * Removes a specific key from the hash table.
+     * @param k the key of the item being removed.
+     * @return true if the item is removed, else false.
+     */
+    public boolean remove( KeyType k )
+    {
+        int code1 = hash1.hashCode( k );
+        int code2 = hash2.hashCode( k );
+        Table<KeyType, ValueType> t;
+        boolean removed;
+
+        for ( ;; )
+        {
+            t = table;
+            lockPair( code1, code2 );
+            try
+            {
+                if ( t != table )               //Resized while waiting
+                    continue;
+                moveOwnBuckets( t, code1, code2 );
+                removed = t.unlink( k, code1, index( code1, t.length( ) ) )
+                       || t.unlink( k, code1, index( code2, t.length( ) ) );
+                if ( removed )
+                    theSize.decrementAndGet( );
+            }
+            finally
+            {
+                unlockPair( code1, code2 );
+            }
+            break;
+        }
+
+        helpMove( t );
+        return removed;
+    }
+
+    /**
+     * Private routine that enlarges the array. It only installs the new
+     * array, with the current one beside it as its old array; the buckets
+     * are moved later, a few at a time, by moveBucket. If the last resize
+     * has not finished moving, this one finishes it first.
+     */
+    private void rehash( )
+    {
+        resizeLock.lock( );
+        try
+        {
+            Table<KeyType, ValueType> current = table;
+            if ( theSize.get( ) <= current.length( ) )  //Another thread did it
+                return;
+
+            for ( int i = 0; current.old != null
+                             && i < current.old.length( ); i++ )
+                moveLocked( current, i );
+            table = new Table<>( current.length( ) * 4, current );
+        }
+        finally
+        {
+            resizeLock.unlock( );
+        }
+    }
+
+    /**
+     * Moves the old buckets a key may be in, so that the key is only ever
+     * looked for in the new array. The caller holds the key's stripes,
+     * which are the stripes of these buckets.
+     * @param t the current array.
+     * @param code1 the key's first hash code.
+     * @param code2 the key's second hash code.
+     */
+    private void moveOwnBuckets( Table<KeyType, ValueType> t,
+                                 int code1, int code2 )
+    {
+        Table<KeyType, ValueType> old = t.old;
+        if ( old == null )
+            return;
+        moveBucket( t, index( code1, old.length( ) ) );
+        moveBucket( t, index( code2, old.length( ) ) );
+    }
+
+    /**
+     * Moves the next MIGRATE_STEP old buckets, if a resize is under way.
+     * Called with no stripe locked; each bucket's stripe is locked in turn.
+     * @param t the array the caller worked on.
+     */
+    private void helpMove( Table<KeyType, ValueType> t )
+    {
+        Table<KeyType, ValueType> old = t.old;
+        if ( old == null )
+            return;
+        int start = t.sweep.getAndAdd( MIGRATE_STEP );
+        int end = Math.min( start + MIGRATE_STEP, old.length( ) );
+        for ( int i = start; i < end; i++ )
+            moveLocked( t, i );
+    }
+
+    /**
+     * Locks the stripe of an old bucket and moves it.
+     * @param t the array being moved into.
+     * @param i the old bucket.
+     */
+    private void moveLocked( Table<KeyType, ValueType> t, int i )
+    {
+        ReentrantLock lock = locks[ i % locks.length ];
+        lock.lock( );
+        try
+        {
+            moveBucket( t, i );
+        }
+        finally
+        {
+            lock.unlock( );
+        }
+    }
+
+    /**
+     * Moves one old bucket into the new array, unless it has been moved.
+     * Each node goes to the new list of the hash code that placed it in
+     * this bucket, which is on the same stripe, so the bucket's stripe lock
+     * is the only one needed. Nodes are copied rather than relinked, and
+     * the copies are published before the old list is cleared, so that
+     * readers still walking the old array see intact lists.
+     * @param t the array being moved into.
+     * @param i the old bucket; the caller holds its stripe.
+     */
+    private void moveBucket( Table<KeyType, ValueType> t, int i )
+    {
+        Table<KeyType, ValueType> old = t.old;
+        if ( old == null || t.moved[ i ] )
+            return;
+        for ( Node<KeyType, ValueType> curr = old.buckets.get( i );
+              curr != null; curr = curr.next )
+        {
+            int code = ( index( curr.code1, old.length( ) ) == i )
+                    ? curr.code1 : curr.code2;
+            int index = index( code, t.length( ) );
+            t.push( index, new Node<>( curr.key, curr.value, curr.code1,
+                                       curr.code2, t.buckets.get( index ) ) );
+        }
+        old.buckets.set( i, null );
+        old.lengths[ i ] = 0;
+        t.moved[ i ] = true;
+        if ( t.remaining.decrementAndGet( ) == 0 )  //All moved--drop it
+            t.old = null;
+    }
+
+    /**
+     * Reduces a raw hash code to an index of an array of the given length.
+     * @param code the hash code from one of the hash functions.
+     * @param length the length of the array.
+     * @return the index.
+     */
+    private static int index( int code, int length )
+    {
+        return Math.abs( code % length );
+    }
+
+    /**
+     * Locks the stripes of a key's two lists, lower stripe first to avoid
+     * deadlock. Since every array length is a multiple of the number of
+     * stripes, a list's stripe depends only on the hash code, not on the
+     * array.
+     * @param code1 the key's first hash code.
+     * @param code2 the key's second hash code.
+     */
+    private void lockPair( int code1, int code2 )
+    {
+        int s1 = index( code1, locks.length );
+        int s2 = index( code2, locks.length );
+        locks[ Math.min( s1, s2 ) ].lock( );
+        if ( s1 != s2 )
+            locks[ Math.max( s1, s2 ) ].lock( );
+    }
+
+    /**
+     * Unlocks the stripes locked by lockPair.
+     * @param code1 the key's first hash code.
+     * @param code2 the key's second hash code.
+     */
+    private void unlockPair( int code1, int code2 )
+    {
+        int s1 = index( code1, locks.length );
+        int s2 = index( code2, locks.length );
+        if ( s1 != s2 )
+            locks[ Math.max( s1, s2 ) ].unlock( );
+        locks[ Math.min( s1, s2 ) ].unlock( );
+    }
+
+    /**
+     * Locks every stripe, in order.
+     */
+    private void lockAll( )
+    {
+        for ( ReentrantLock lock : locks )
+            lock.lock( );
+    }
+
+    /**
+     * Unlocks every stripe.
+     */
+    private void unlockAll( )
+    {
+        for ( int i = locks.length - 1; i >= 0; i-- )
+            locks[ i ].unlock( );
+    }
+
+    /**
+     * The hash array along with its list sizes. The lists are published
+     * through an AtomicReferenceArray so that lock-free readers always see
+     * fully built Nodes; the sizes are only touched under the stripe locks.
+     * While a resize is under way the array also keeps the one it replaces,
+     * with a flag per old bucket telling whether it has been moved.
+     * @param <KeyType> represents a key.
+     * @param <ValueType> represents a value.
+     */
+    private static class Table<KeyType, ValueType>
+    {
+        final AtomicReferenceArray<Node<KeyType, ValueType>> buckets;
+        final int [ ] lengths;
+        volatile Table<KeyType, ValueType> old;     //Being moved, or null
+        final boolean [ ] moved;                    //Per old bucket
+        final AtomicInteger remaining;              //Old buckets not moved
+        final AtomicInteger sweep = new AtomicInteger( ); //Next to help move
+
+        Table( int length, Table<KeyType, ValueType> previous )
+        {
+            buckets = new AtomicReferenceArray<>( length );
+            lengths = new int[ length ];
+            old = previous;
+            int oldLength = ( previous != null ) ? previous.length( ) : 0;
+            moved = new boolean[ oldLength ];
+            remaining = new AtomicInteger( oldLength );
+        }
+
+        int length( )
+        {
+            return lengths.length;
+        }
+
+        /**
+         * Makes a Node, already linked to the old first Node, the new first
+         * Node of a list.
+         */
+        void push( int index, Node<KeyType, ValueType> n )
+        {
+            buckets.set( index, n );
+            lengths[ index ]++;
+        }
+
+        /**
+         * Finds the Node holding a key in either of its lists.
+         */
+        Node<KeyType, ValueType> findEither( KeyType k, int code1, int code2 )
+        {
+            Node<KeyType, ValueType> n = find( k, code1,
+                                               index( code1, length( ) ) );
+            return ( n != null ) ? n
+                    : find( k, code1, index( code2, length( ) ) );
+        }
+
+        /**
+         * Finds the Node holding a key in one list.
+         */
+        Node<KeyType, ValueType> find( KeyType k, int code1, int index )
+        {
+            for ( Node<KeyType, ValueType> current = buckets.get( index );
+                  current != null; current = current.next )
+                if ( current.code1 == code1 && k.equals( current.key ) )
+                    return current;
+            return null;
+        }
+
+        /**
+         * Removes the Node holding a key from one list, if it is there.
+         */
+        boolean unlink( KeyType k, int code1, int index )
+        {
+            Node<KeyType, ValueType> current = buckets.get( index );
+            if ( current == null )
+                return false;
+            if ( current.code1 == code1 && k.equals( current.key ) )
+            {
+                buckets.set( index, current.next );
+                lengths[ index ]--;
+                return true;
+            }
+            for ( Node<KeyType, ValueType> next = current.next; next != null;
+                  current = next, next = next.next )
+                if ( next.code1 == code1 && k.equals( next.key ) )
+                {
+                    current.next = next.next;
+                    lengths[ index ]--;
+                    return true;
+                }
+            return false;
+        }
+    }
+
+    /**
+     * Node class that comprises of a key and a value, along with the key's
+     * codes from both hash functions.
+     * @param <KeyType> represents a key.
+     * @param <ValueType> represents a value.
+     */
+    private static class Node<KeyType, ValueType>
+    {
+        final KeyType key;
+        volatile ValueType value;
+        final int code1;                    //hash1.hashCode( key )
+        final int code2;                    //hash2.hashCode( key )
+        volatile Node<KeyType, ValueType> next ;
+
+        Node( KeyType k, ValueType v, int c1, int c2,
+              Node<KeyType, ValueType> n )
+        {
+            key = k; value = v; code1 = c1; code2 = c2; next = n;
+        }
+
+        public String toString( )
+        {
+            return key + "=" +  value;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package cop3530;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+/**
+ *
+ * File: CuckooHashMap.java
+ *
+ * The purpose of this class is to implement a hash map using cuckoo hashing.
+ * Every key lives in one of exactly two slots, one chosen by each hash
+ * function, so a lookup is at most two probes (plus a scan of the small
+ * stash). Keys and values are kept in flat arrays; no nodes are allocated.
+ * The hash functions are fixed, so keys whose two codes both collide can
+ * never be separated by growing the table; after a few rounds of growth the
+ * stash itself grows to hold them, and such keys are found by a scan.
+ *
+ * @author Aqib
+ * @param <KeyType> A generic key.
+ * @param <ValueType> A generic value.
+ */
+public class CuckooHashMap<KeyType,ValueType>
+        implements Iterable<Map.Entry<KeyType,ValueType>>
+{
+    private HashFunction<KeyType> hash1;                //Hash function 1
+    private HashFunction<KeyType> hash2;                //Hash function 2
+    private Object [ ] keys = null;                     //Key slots
+    private Object [ ] values = null;                   //Value slots
+    private Object [ ] stashKeys = null;                //Overflow keys
+    private Object [ ] stashValues = null;              //Overflow values
+    private int stashSize;                              //Items in the stash
+    private int stashLimit;                             //Items that rehash
+    private int theSize;                                //Number of items
+    private static final int DEFAULT_ARR_SIZE = 11 ;    //Array size
+    private static final int STASH_SIZE = 4 ;           //Initial stash size
+    private static final int MAX_DISPLACEMENTS = 32 ;   //Eviction bound
+    private static final int MAX_GROW_ROUNDS = 4 ;      //Rehash growth bound
+
+    /**
+     * Constructor that creates a cuckoo hash map with two separate hash
+     * functions.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     */
+    public CuckooHashMap( HashFunction<KeyType> h1, HashFunction<KeyType> h2 )
+    {
+        hash1 = h1;            //initialize instance var's
+        hash2 = h2;
+        doClear( );            //private routine--sets arrays and theSize
+    }
+
+    /**
+     * Get method the size of the hash map.
+     * @return the number of elements in the hash map.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Clears the hash map. Resets the size.
+     */
+    public void clear( )
+    {
+        doClear( );
+    }
+
+    /**
+     * Clears the arrays; resets size, slots and stash.
+     */
+    private void doClear( )
+    {
+        theSize = 0;
+        stashSize = 0;
+        stashLimit = STASH_SIZE;
+        keys = new Object[ DEFAULT_ARR_SIZE ];
+        values = new Object[ DEFAULT_ARR_SIZE ];
+        stashKeys = new Object[ STASH_SIZE ];
+        stashValues = new Object[ STASH_SIZE ];
+    }
+
+    /**
+     * Adds a key to the hash map. If the key has already been added previously,
+     * then the previous value is replaced with the new.
+     * @param k the key.
+     * @param v the value.
+     * @return the value being overwritten. If no value is being overwritten,
+     * null is returned.
+     */
+    public ValueType put( KeyType k, ValueType v )
+    {
+        int slot = findSlot( k );
+        if ( slot >= 0 )                            //Already in a table slot
+        {
+            ValueType val = ( ValueType ) values[ slot ];
+            values[ slot ] = v;
+            return val;
+        }
+        int stashSlot = findStash( k );
+        if ( stashSlot >= 0 )                       //Already in the stash
+        {
+            ValueType val = ( ValueType ) stashValues[ stashSlot ];
+            stashValues[ stashSlot ] = v;
+            return val;
+        }
+
+        if ( theSize + 1 > keys.length / 2 )  //Keep load factor under half
+            rehash( keys.length * 2 + 1 );
+
+        theSize++;
+        insert( k, v, true );
+        return null;
+    }
+
+    /**
+     * Places a new key, evicting residents to their alternate slot as needed.
+     * If the eviction chain runs too long, the homeless key goes to the stash.
+     * If the stash already holds stashLimit keys, the table is rehashed once
+     * first; if the key still has no place after that, the stash grows.
+     * @param k the key (not already present).
+     * @param v the value.
+     * @param mayRehash false once this insert has rehashed.
+     */
+    private void insert( KeyType k, ValueType v, boolean mayRehash )
+    {
+        Object curKey = k;
+        Object curVal = v;
+        int pos = myHash1( k );
+
+        for ( int i = 0; i < MAX_DISPLACEMENTS; i++ )
+        {
+            if ( keys[ pos ] == null )                  //Free slot
+            {
+                keys[ pos ] = curKey;
+                values[ pos ] = curVal;
+                return;
+            }
+            if ( i == 0 )                               //Try second choice
+            {                                           //before evicting
+                int alt = myHash2( k );
+                if ( keys[ alt ] == null )
+                {
+                    keys[ alt ] = curKey;
+                    values[ alt ] = curVal;
+                    return;
+                }
+            }
+
+            Object evictedKey = keys[ pos ];            //Kick out resident
+            Object evictedVal = values[ pos ];
+            keys[ pos ] = curKey;
+            values[ pos ] = curVal;
+            curKey = evictedKey;
+            curVal = evictedVal;
+            pos = alternate( ( KeyType ) curKey, pos ); //Send it home
+        }
+
+        if ( stashSize >= stashLimit && mayRehash )     //Cycle--grow and
+        {                                               //try again
+            rehash( keys.length * 2 + 1 );
+            insert( ( KeyType ) curKey, ( ValueType ) curVal, false );
+            return;
+        }
+        addToStash( curKey, curVal );                   //Chain too long
+    }
+
+    /**
+     * Adds a key to the stash, doubling the stash if it is full.
+     * @param k the key.
+     * @param v the value.
+     */
+    private void addToStash( Object k, Object v )
+    {
+        if ( stashSize == stashKeys.length )
+        {
+            stashKeys = Arrays.copyOf( stashKeys, stashSize * 2 );
+            stashValues = Arrays.copyOf( stashValues, stashSize * 2 );
+        }
+        stashKeys[ stashSize ] = k;
+        stashValues[ stashSize ] = v;
+        stashSize++;
+    }
+
+    /**
+     * Returns the other slot a key may occupy.
+     * @param k the key.
+     * @param pos the slot the key is currently in.
+     * @return the alternate slot.
+     */
+    private int alternate( KeyType k, int pos )
+    {
+        int h1 = myHash1( k );
+        return ( h1 == pos ) ? myHash2( k ) : h1;
+    }
+
+    /**
+     * Generates a hash code using the first hash function.
+     * @param k key that the hash code is being generated for.
+     * @return a hash code.
+     */
+    private int myHash1( KeyType k )
+    {
+        return Math.abs( hash1.hashCode( k ) % keys.length );
+    }
+
+    /**
+     * Generates hash code using the second hash function.
+     * @param k key that the hash code is being generated for.
+     * @return a hash code.
+     */
+    private int myHash2( KeyType k )
+    {
+        return Math.abs( hash2.hashCode( k ) % keys.length );
+    }
+
+    /**
+     * Probes the two candidate slots of a key.
+     * @param k the key in question.
+     * @return the slot holding the key, or -1 if not found.
+     */
+    private int findSlot( KeyType k )
+    {
+        int pos = myHash1( k );
+        if ( keys[ pos ] != null && k.equals( keys[ pos ] ) )
+            return pos;
+        pos = myHash2( k );
+        if ( keys[ pos ] != null && k.equals( keys[ pos ] ) )
+            return pos;
+        return -1;
+    }
+
+    /**
+     * Scans the stash for a key.
+     * @param k the key in question.
+     * @return the stash index holding the key, or -1 if not found.
+     */
+    private int findStash( KeyType k )
+    {
+        for ( int i = 0; i < stashSize; i++ )
+            if ( k.equals( stashKeys[ i ] ) )
+                return i;
+        return -1;
+    }
+
+    /**
+     * Private routine that rebuilds the table with a new length. Since the
+     * hash functions are fixed, changing the length is what gives every key
+     * a fresh pair of slots. Each round starts from a stash of STASH_SIZE,
+     * so the stash shrinks back whenever the residents fit. Keeps growing
+     * until they do, for at most MAX_GROW_ROUNDS rounds; keys whose codes all
+     * collide can never be separated, so the last round goes back to
+     * newLength and lets the stash grow instead. The next cycle rehashes
+     * only once the stash holds twice what this one left in it.
+     * @param newLength the length of the new table.
+     */
+    private void rehash( int newLength )
+    {
+        Object [ ] oldKeys = keys;
+        Object [ ] oldValues = values;
+        Object [ ] oldStashKeys = stashKeys;
+        Object [ ] oldStashValues = stashValues;
+        int oldStashSize = stashSize;
+
+        boolean placed = false;
+        int length = newLength;
+        for ( int round = 0; !placed; round++ )
+        {
+            boolean lastRound = ( round == MAX_GROW_ROUNDS );
+            if ( lastRound )                    //Growing did not help
+                length = newLength;
+            keys = new Object[ length ];
+            values = new Object[ length ];
+            stashKeys = new Object[ STASH_SIZE ];
+            stashValues = new Object[ STASH_SIZE ];
+            stashSize = 0;
+            placed = true;
+
+            for ( int i = 0; placed && i < oldKeys.length; i++ )
+                if ( oldKeys[ i ] != null )
+                    placed = reinsert( oldKeys[ i ], oldValues[ i ],
+                                       lastRound );
+            for ( int i = 0; placed && i < oldStashSize; i++ )
+                placed = reinsert( oldStashKeys[ i ], oldStashValues[ i ],
+                                   lastRound );
+
+            length = length * 2 + 1;
+        }
+        stashLimit = Math.max( STASH_SIZE, stashSize * 2 );
+    }
+
+    /**
+     * Places a resident during a rehash, without triggering another rehash.
+     * @param k the key.
+     * @param v the value.
+     * @param mayGrowStash true to grow the stash rather than fail.
+     * @return false if the key could not be placed.
+     */
+    private boolean reinsert( Object k, Object v, boolean mayGrowStash )
+    {
+        Object curKey = k;
+        Object curVal = v;
+        int pos = myHash1( ( KeyType ) k );
+        for ( int i = 0; i < MAX_DISPLACEMENTS; i++ )
+        {
+            if ( keys[ pos ] == null )
+            {
+                keys[ pos ] = curKey;
+                values[ pos ] = curVal;
+                return true;
+            }
+            Object evictedKey = keys[ pos ];
+            Object evictedVal = values[ pos ];
+            keys[ pos ] = curKey;
+            values[ pos ] = curVal;
+            curKey = evictedKey;
+            curVal = evictedVal;
+            pos = alternate( ( KeyType ) curKey, pos );
+        }
+        if ( stashSize < stashKeys.length || mayGrowStash )
+        {
+            addToStash( curKey, curVal );
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a specific key from the hash table.
+     * @param k the key of the item being removed.
+     * @return true if the item is removed, else false.
+     */
+    public boolean remove( KeyType k )
+    {
+        int slot = findSlot( k );
+        if ( slot >= 0 )
+        {
+            keys[ slot ] = null;
+            values[ slot ] = null;
+            theSize--;
+            return true;
+        }
+        int stashSlot = findStash( k );
+        if ( stashSlot >= 0 )                   //Fill the hole with the last
+        {
+            stashSize--;
+            stashKeys[ stashSlot ] = stashKeys[ stashSize ];
+            stashValues[ stashSlot ] = stashValues[ stashSize ];
+            stashKeys[ stashSize ] = null;
+            stashValues[ stashSize ] = null;
+            if ( stashSize * 2 < stashLimit )   //Stuck keys are leaving
+                stashLimit = Math.max( STASH_SIZE, stashSize * 2 );
+            theSize--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value of a given key.
+     * @param k the key.
+     * @return the value, or null if not found.
+     */
+    public ValueType get( KeyType k )
+    {
+        int slot = findSlot( k );
+        if ( slot >= 0 )
+            return ( ValueType ) values[ slot ];
+        int stashSlot = findStash( k );
+        if ( stashSlot >= 0 )
+            return ( ValueType ) stashValues[ stashSlot ];
+        return null;
+    }
+
+    /**
+     * Represents the hash table as a String.
+     * @return the hash table.
+     */
+    public String toString( )
+    {
+        StringBuilder sb = new StringBuilder() ;
+        sb.append( "[ " );
+        for ( int i = 0; i < keys.length; i++ )
+        {
+            if ( keys[ i ] != null )
+                sb.append( keys[ i ] ).append( "=" ).append( values[ i ] );
+            sb.append(" ]");
+            sb.append("\n");
+            sb.append("[ ");
+        }
+        for ( int i = 0; i < stashSize; i++ )
+        {
+            sb.append( stashKeys[ i ] ).append( "=" ).append( stashValues[ i ] );
+            sb.append( " " );
+        }
+        sb.append(" ]");
+        return new String( sb );
+    }
+
+    /**
+     * An iterator that allows iteration through the hash table, visiting the
+     * table slots first and then the stash.
+     * @return an Iterator.
+     */
+    public Iterator<Map.Entry<KeyType, ValueType>> iterator( )
+    {
+        return new Iterator<Map.Entry<KeyType, ValueType>>( )
+        {
+            int slot = -1;          // current position; slots then stash
+
+            public boolean hasNext( )
+            {
+                return nextSlot( slot ) < keys.length + stashSize;
+            }
+
+            public Map.Entry<KeyType, ValueType> next( )
+            {
+                slot = nextSlot( slot );
+                if ( slot >= keys.length + stashSize )
+                    throw new NoSuchElementException( );
+
+                final int theSlot = slot;
+                return new Map.Entry<KeyType, ValueType>( )
+                {
+                    public KeyType getKey()
+                    {
+                        if ( theSlot < keys.length )
+                            return ( KeyType ) keys[ theSlot ];
+                        return ( KeyType ) stashKeys[ theSlot - keys.length ];
+                    }
+
+                    public ValueType getValue()
+                    {
+                        if ( theSlot < keys.length )
+                            return ( ValueType ) values[ theSlot ];
+                        return ( ValueType )
+                                stashValues[ theSlot - keys.length ];
+                    }
+
+                    public ValueType setValue(ValueType value)
+                    {
+                        ValueType val = getValue( );
+                        if ( theSlot < keys.length )
+                            values[ theSlot ] = value;
+                        else
+                            stashValues[ theSlot - keys.length ] = value;
+                        return val;
+                    }
+                };
+            }
+
+            private int nextSlot( int from )
+            {
+                int s = from + 1;
+                while ( s < keys.length && keys[ s ] == null )
+                    s++;
+                return s;
+            }
+        };
+    }
+}
@@ -0,0 +1,457 @@
+package cop3530;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+/**
+ *
+ * File: FingerprintMyHashMap.java
+ *
+ * The purpose of this class is to implement a hash map whose lookups rarely
+ * call equals. Slots are arranged in groups of eight. Each key may go in
+ * either of two groups, one chosen by each hash function, and goes to the
+ * emptier one. Every group has one long of control bytes, one byte per slot:
+ * 0 for an empty slot, otherwise the high bit plus a 7-bit fingerprint of the
+ * key's hash code. A lookup compares the fingerprint against all eight bytes
+ * at once with plain long arithmetic, and calls equals only on slots whose
+ * fingerprint and saved hash code both match. A miss usually calls equals
+ * not at all. Keys whose two groups stay full however much the table grows,
+ * such as keys whose codes all collide, go to a small overflow list instead,
+ * which is only scanned while it is not empty.
+ *
+ * @author Aqib
+ * @param <KeyType> A generic key.
+ * @param <ValueType> A generic value.
+ */
+public class FingerprintMyHashMap<KeyType,ValueType>
+{
+    private HashFunction<KeyType> hash1;                //Hash function 1
+    private HashFunction<KeyType> hash2;                //Hash function 2
+    private long [ ] control = null;                    //8 bytes per group
+    private Object [ ] keys = null;                     //Key slots
+    private Object [ ] values = null;                   //Value slots
+    private int [ ] codes1 = null;                      //hash1 code per slot
+    private int [ ] codes2 = null;                      //hash2 code per slot
+    private Object [ ] overflowKeys = null;             //Keys with no group
+    private Object [ ] overflowValues = null;
+    private int [ ] overflowCodes1 = null;
+    private int [ ] overflowCodes2 = null;
+    private int overflowSize;                           //Items in overflow
+    private int theSize;                                //Number of items
+    private static final int DEFAULT_GROUPS = 3 ;       //Groups on clear
+    private static final int GROUP = 8 ;                //Slots per group
+    private static final long LOW_BITS = 0x0101010101010101L ;
+    private static final long HIGH_BITS = 0x8080808080808080L ;
+    private static final int OVERFLOW_SIZE = 4 ;        //Initial overflow
+    private static final int MAX_GROW_ROUNDS = 4 ;      //Rehash growth bound
+
+    /**
+     * Constructor that creates a hash map with two separate hash functions.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     */
+    public FingerprintMyHashMap( HashFunction<KeyType> h1,
+                                 HashFunction<KeyType> h2 )
+    {
+        hash1 = h1;            //initialize instance var's
+        hash2 = h2;
+        doClear( );            //private routine--sets arrays and theSize
+    }
+
+    /**
+     * Get method the size of the hash map.
+     * @return the number of elements in the hash map.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Clears the hash map. Resets the size.
+     */
+    public void clear( )
+    {
+        doClear( );
+    }
+
+    /**
+     * Clears the arrays; resets size and every control byte.
+     */
+    private void doClear( )
+    {
+        theSize = 0;
+        allocate( DEFAULT_GROUPS );
+    }
+
+    /**
+     * Replaces the arrays with empty ones.
+     * @param groups the number of groups.
+     */
+    private void allocate( int groups )
+    {
+        control = new long[ groups ];
+        keys = new Object[ groups * GROUP ];
+        values = new Object[ groups * GROUP ];
+        codes1 = new int[ groups * GROUP ];
+        codes2 = new int[ groups * GROUP ];
+        overflowKeys = new Object[ OVERFLOW_SIZE ];
+        overflowValues = new Object[ OVERFLOW_SIZE ];
+        overflowCodes1 = new int[ OVERFLOW_SIZE ];
+        overflowCodes2 = new int[ OVERFLOW_SIZE ];
+        overflowSize = 0;
+    }
+
+    /**
+     * Adds a key to the hash map. If the key has already been added previously,
+     * then the previous value is replaced with the new.
+     * @param k the key.
+     * @param v the value.
+     * @return the value being overwritten. If no value is being overwritten,
+     * null is returned.
+     */
+    public ValueType put( KeyType k, ValueType v )
+    {
+        int code1 = hash1.hashCode( k );
+        int code2 = hash2.hashCode( k );
+        int slot = findSlot( k, code1, code2 );
+        if ( slot >= keys.length )
+        {
+            ValueType val = ( ValueType ) overflowValues[ slot - keys.length ];
+            overflowValues[ slot - keys.length ] = v;
+            return val;
+        }
+        if ( slot >= 0 )
+        {
+            ValueType val = ( ValueType ) values[ slot ];
+            values[ slot ] = v;
+            return val;
+        }
+
+        if ( theSize >= keys.length - keys.length / 8 )  //Over 7/8 full
+            rehash( control.length * 2 + 1 );
+        if ( !place( k, v, code1, code2 ) )              //Both groups full
+        {
+            if ( overflowSize == 0 )                     //Grow once, unless
+                rehash( control.length * 2 + 1 );        //growing has failed
+            if ( overflowSize > 0 || !place( k, v, code1, code2 ) )
+                addToOverflow( k, v, code1, code2 );
+        }
+        theSize++;
+        return null;
+    }
+
+    /**
+     * Returns the value of a given key.
+     * @param k the key.
+     * @return the value, or null if the key is not present.
+     */
+    public ValueType get( KeyType k )
+    {
+        int slot = findSlot( k, hash1.hashCode( k ), hash2.hashCode( k ) );
+        if ( slot >= keys.length )
+            return ( ValueType ) overflowValues[ slot - keys.length ];
+        return ( slot < 0 ) ? null : ( ValueType ) values[ slot ];
+    }
+
+    /**
+     * Determines if a key is present.
+     * @param k the key.
+     * @return true if the key is present, else false.
+     */
+    public boolean containsKey( KeyType k )
+    {
+        return findSlot( k, hash1.hashCode( k ), hash2.hashCode( k ) ) >= 0;
+    }
+
+    /**
+     * Removes a specific key from the hash table. Only the two candidate
+     * groups are ever searched, so the slot is simply marked empty; no
+     * tombstone is needed.
+     * @param k the key of the item being removed.
+     * @return true if the item is removed, else false.
+     */
+    public boolean remove( KeyType k )
+    {
+        int slot = findSlot( k, hash1.hashCode( k ), hash2.hashCode( k ) );
+        if ( slot < 0 )
+            return false;
+        if ( slot >= keys.length )              //Fill the hole with the last
+        {
+            int i = slot - keys.length;
+            overflowSize--;
+            overflowKeys[ i ] = overflowKeys[ overflowSize ];
+            overflowValues[ i ] = overflowValues[ overflowSize ];
+            overflowCodes1[ i ] = overflowCodes1[ overflowSize ];
+            overflowCodes2[ i ] = overflowCodes2[ overflowSize ];
+            overflowKeys[ overflowSize ] = null;
+            overflowValues[ overflowSize ] = null;
+            theSize--;
+            return true;
+        }
+        control[ slot / GROUP ] &= ~( 0xFFL << ( slot % GROUP * 8 ) );
+        keys[ slot ] = null;
+        values[ slot ] = null;
+        theSize--;
+        return true;
+    }
+
+    /**
+     * Passes every key and value to an action.
+     * @param action the action.
+     */
+    public void forEach( BiConsumer<? super KeyType, ? super ValueType> action )
+    {
+        for ( int g = 0; g < control.length; g++ )
+            for ( long full = control[ g ] & HIGH_BITS; full != 0;
+                  full &= full - 1 )
+            {
+                int slot = g * GROUP + Long.numberOfTrailingZeros( full ) / 8;
+                action.accept( ( KeyType ) keys[ slot ],
+                               ( ValueType ) values[ slot ] );
+            }
+        for ( int i = 0; i < overflowSize; i++ )
+            action.accept( ( KeyType ) overflowKeys[ i ],
+                           ( ValueType ) overflowValues[ i ] );
+    }
+
+    /**
+     * Reduces a raw hash code to a group number.
+     * @param code the hash code from one of the hash functions.
+     * @param groups the number of groups.
+     * @return the group number.
+     */
+    private static int group( int code, int groups )
+    {
+        return Math.abs( code % groups );
+    }
+
+    /**
+     * Makes the control byte for a key: the high bit marks the slot as full
+     * and the low seven bits come from the top of the first hash code, which
+     * the group number barely depends on.
+     * @param code1 the key's code from the first hash function.
+     * @return the control byte, between 0x80 and 0xFF.
+     */
+    private static int fingerprint( int code1 )
+    {
+        return 0x80 | ( code1 >>> 25 );
+    }
+
+    /**
+     * Finds the slots of a group whose control byte equals a given byte.
+     * XOR turns matching bytes into zero bytes, and the usual zero-byte test
+     * then sets the high bit of each of them. A borrow can also mark a byte
+     * just above a real match, so every hit is still checked.
+     * @param word the group's control bytes.
+     * @param b the byte to look for.
+     * @return a mask with the high bit set in each candidate byte.
+     */
+    private static long match( long word, int b )
+    {
+        long x = word ^ ( LOW_BITS * b );
+        return ( x - LOW_BITS ) & ~x & HIGH_BITS;
+    }
+
+    /**
+     * Finds the slots of a group that are empty.
+     * @param word the group's control bytes.
+     * @return a mask with the high bit set in each empty byte.
+     */
+    private static long empties( long word )
+    {
+        return ~word & HIGH_BITS;
+    }
+
+    /**
+     * Finds the slot holding a key, checking both of its groups and then
+     * the overflow list, if it is in use.
+     * @param k the key in question.
+     * @param code1 the key's code from the first hash function.
+     * @param code2 the key's code from the second hash function.
+     * @return the slot, keys.length plus the index for a key in the
+     * overflow list, or -1 if not found.
+     */
+    private int findSlot( KeyType k, int code1, int code2 )
+    {
+        int fp = fingerprint( code1 );
+        int g1 = group( code1, control.length );
+        int slot = findInGroup( g1, k, code1, fp );
+        int g2 = group( code2, control.length );
+        if ( slot < 0 && g2 != g1 )
+            slot = findInGroup( g2, k, code1, fp );
+        for ( int i = 0; slot < 0 && i < overflowSize; i++ )
+            if ( overflowCodes1[ i ] == code1 && k.equals( overflowKeys[ i ] ) )
+                slot = keys.length + i;
+        return slot;
+    }
+
+    /**
+     * Searches one group for a key.
+     * @param g the group number.
+     * @param k the key in question.
+     * @param code1 the key's code from the first hash function.
+     * @param fp the key's control byte.
+     * @return the slot, or -1 if not found.
+     */
+    private int findInGroup( int g, KeyType k, int code1, int fp )
+    {
+        for ( long hits = match( control[ g ], fp ); hits != 0;
+              hits &= hits - 1 )
+        {
+            int slot = g * GROUP + Long.numberOfTrailingZeros( hits ) / 8;
+            if ( codes1[ slot ] == code1 && k.equals( keys[ slot ] ) )
+                return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Puts a new key in the first empty slot of the emptier of its two
+     * groups.
+     * @param k the key.
+     * @param v the value.
+     * @param code1 the key's code from the first hash function.
+     * @param code2 the key's code from the second hash function.
+     * @return false if both groups are full.
+     */
+    private boolean place( Object k, Object v, int code1, int code2 )
+    {
+        int g1 = group( code1, control.length );
+        int g2 = group( code2, control.length );
+        long free1 = empties( control[ g1 ] );
+        long free2 = empties( control[ g2 ] );
+        int g = ( Long.bitCount( free1 ) >= Long.bitCount( free2 ) )
+                ? g1 : g2;
+        long free = ( g == g1 ) ? free1 : free2;
+        if ( free == 0 )
+            return false;
+
+        int byteNum = Long.numberOfTrailingZeros( free ) / 8;
+        int slot = g * GROUP + byteNum;
+        control[ g ] |= (long) fingerprint( code1 ) << ( byteNum * 8 );
+        keys[ slot ] = k;
+        values[ slot ] = v;
+        codes1[ slot ] = code1;
+        codes2[ slot ] = code2;
+        return true;
+    }
+
+    /**
+     * Adds a key to the overflow list, doubling the list if it is full.
+     * @param k the key.
+     * @param v the value.
+     * @param code1 the key's code from the first hash function.
+     * @param code2 the key's code from the second hash function.
+     */
+    private void addToOverflow( Object k, Object v, int code1, int code2 )
+    {
+        if ( overflowSize == overflowKeys.length )
+        {
+            int newLength = overflowSize * 2;
+            overflowKeys = Arrays.copyOf( overflowKeys, newLength );
+            overflowValues = Arrays.copyOf( overflowValues, newLength );
+            overflowCodes1 = Arrays.copyOf( overflowCodes1, newLength );
+            overflowCodes2 = Arrays.copyOf( overflowCodes2, newLength );
+        }
+        overflowKeys[ overflowSize ] = k;
+        overflowValues[ overflowSize ] = v;
+        overflowCodes1[ overflowSize ] = code1;
+        overflowCodes2[ overflowSize ] = code2;
+        overflowSize++;
+    }
+
+    /**
+     * Puts an item in one of its groups or, if allowed, the overflow list.
+     * @param k the key.
+     * @param v the value.
+     * @param code1 the key's code from the first hash function.
+     * @param code2 the key's code from the second hash function.
+     * @param mayOverflow true to use the overflow list rather than fail.
+     * @return false if the item could not be placed.
+     */
+    private boolean placeOrOverflow( Object k, Object v, int code1,
+                                     int code2, boolean mayOverflow )
+    {
+        if ( place( k, v, code1, code2 ) )
+            return true;
+        if ( !mayOverflow )
+            return false;
+        addToOverflow( k, v, code1, code2 );
+        return true;
+    }
+
+    /**
+     * Private routine that moves every item, including those in the overflow
+     * list, to a larger set of groups, using the saved hash codes. If some
+     * item finds both its groups full, the number of groups is enlarged
+     * again and the move starts over, for at most MAX_GROW_ROUNDS rounds.
+     * Items that still find no group then go to the overflow list, as they
+     * do from the first round if the overflow list was already in use:
+     * keys whose codes all collide would otherwise grow the table forever.
+     * @param groups the number of groups to try first.
+     */
+    private void rehash( int groups )
+    {
+        long [ ] oldControl = control;
+        Object [ ] oldKeys = keys;
+        Object [ ] oldValues = values;
+        int [ ] oldCodes1 = codes1;
+        int [ ] oldCodes2 = codes2;
+        Object [ ] oldOverflowKeys = overflowKeys;
+        Object [ ] oldOverflowValues = overflowValues;
+        int [ ] oldOverflowCodes1 = overflowCodes1;
+        int [ ] oldOverflowCodes2 = overflowCodes2;
+        int oldOverflowSize = overflowSize;
+
+        boolean placed = false;
+        for ( int round = 0; !placed; round++ )
+        {
+            boolean mayOverflow = ( round == MAX_GROW_ROUNDS
+                                    || oldOverflowSize > 0 );
+            allocate( groups );
+            placed = true;
+            for ( int g = 0; g < oldControl.length && placed; g++ )
+                for ( long full = oldControl[ g ] & HIGH_BITS;
+                      full != 0 && placed; full &= full - 1 )
+                {
+                    int slot = g * GROUP
+                            + Long.numberOfTrailingZeros( full ) / 8;
+                    placed = placeOrOverflow( oldKeys[ slot ],
+                            oldValues[ slot ], oldCodes1[ slot ],
+                            oldCodes2[ slot ], mayOverflow );
+                }
+            for ( int i = 0; i < oldOverflowSize && placed; i++ )
+                placed = placeOrOverflow( oldOverflowKeys[ i ],
+                        oldOverflowValues[ i ], oldOverflowCodes1[ i ],
+                        oldOverflowCodes2[ i ], mayOverflow );
+            groups = groups * 2 + 1;
+        }
+    }
+
+    /**
+     * Represents the hash table as a String, one group per line.
+     * @return the hash table.
+     */
+    public String toString( )
+    {
+        StringBuilder sb = new StringBuilder( );
+        for ( int g = 0; g < control.length; g++ )
+        {
+            sb.append( "[ " );
+            for ( long full = control[ g ] & HIGH_BITS; full != 0;
+                  full &= full - 1 )
+            {
+                int slot = g * GROUP + Long.numberOfTrailingZeros( full ) / 8;
+                sb.append( keys[ slot ] ).append( "=" )
+                  .append( values[ slot ] ).append( " " );
+            }
+            sb.append( "]\n" );
+        }
+        sb.append( "[ " );
+        for ( int i = 0; i < overflowSize; i++ )
+            sb.append( overflowKeys[ i ] ).append( "=" )
+              .append( overflowValues[ i ] ).append( " " );
+        sb.append( "]\n" );
+        return new String( sb );
+    }
+}
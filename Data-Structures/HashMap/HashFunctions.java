@@ -0,0 +1,315 @@
+package cop3530;
+
+/**
+ *
+ * File: HashFunctions.java
+ *
+ * The purpose of this class is to provide ready-made hash functions for the
+ * maps in this package. They are seeded versions of MurmurHash3 (x86, 32
+ * bit), so every bit of the key affects every bit of the code, and two
+ * functions with different seeds behave like unrelated functions. That
+ * matters for the two-choice maps: if the two codes of a key are correlated,
+ * keys that collide in one list tend to collide in the other, and the lists
+ * grow long. The pair methods make two such functions from one seed.
+ *
+ * @author Aqib
+ */
+public final class HashFunctions
+{
+    private static final int C1 = 0xCC9E2D51 ;
+    private static final int C2 = 0x1B873593 ;
+
+    private HashFunctions( )
+    {
+    }
+
+    /**
+     * Two hash functions for the same key type, with unrelated seeds.
+     * @param <AnyType> the key type.
+     */
+    public static final class Pair<AnyType>
+    {
+        private final HashFunction<AnyType> first;
+        private final HashFunction<AnyType> second;
+
+        Pair( HashFunction<AnyType> first, HashFunction<AnyType> second )
+        {
+            this.first = first;
+            this.second = second;
+        }
+
+        /**
+         * @return the first hash function.
+         */
+        public HashFunction<AnyType> first( )
+        {
+            return first;
+        }
+
+        /**
+         * @return the second hash function.
+         */
+        public HashFunction<AnyType> second( )
+        {
+            return second;
+        }
+    }
+
+    /**
+     * @param seed the seed.
+     * @return a hash function for Strings, hashing their chars.
+     */
+    public static HashFunction<String> forString( final int seed )
+    {
+        return new HashFunction<String>( )
+        {
+            public int hashCode( String x )
+            {
+                return hashChars( x, seed );
+            }
+        };
+    }
+
+    /**
+     * @param seed the seed.
+     * @return a hash function for byte arrays, hashing their contents.
+     */
+    public static HashFunction<byte [ ]> forBytes( final int seed )
+    {
+        return new HashFunction<byte [ ]>( )
+        {
+            public int hashCode( byte [ ] x )
+            {
+                return hashBytes( x, seed );
+            }
+        };
+    }
+
+    /**
+     * @param seed the seed.
+     * @return a hash function for Integers.
+     */
+    public static HashFunction<Integer> forInteger( final int seed )
+    {
+        return new HashFunction<Integer>( )
+        {
+            public int hashCode( Integer x )
+            {
+                return hashInt( x, seed );
+            }
+        };
+    }
+
+    /**
+     * @param seed the seed.
+     * @return a hash function for Longs.
+     */
+    public static HashFunction<Long> forLong( final int seed )
+    {
+        return new HashFunction<Long>( )
+        {
+            public int hashCode( Long x )
+            {
+                return hashLong( x, seed );
+            }
+        };
+    }
+
+    /**
+     * @param seed the seed.
+     * @return a hash function for primitive ints, for IntObjMyHashMap.
+     */
+    public static IntHashFunction forInt( final int seed )
+    {
+        return new IntHashFunction( )
+        {
+            public int hashCode( int x )
+            {
+                return hashInt( x, seed );
+            }
+        };
+    }
+
+    /**
+     * @param seed the seed.
+     * @return a hash function for primitive longs, for LongLongMyHashMap.
+     */
+    public static LongHashFunction forPrimitiveLong( final int seed )
+    {
+        return new LongHashFunction( )
+        {
+            public int hashCode( long x )
+            {
+                return hashLong( x, seed );
+            }
+        };
+    }
+
+    /**
+     * @param seed any number; equal seeds give equal pairs.
+     * @return two unrelated hash functions for Strings.
+     */
+    public static Pair<String> stringPair( long seed )
+    {
+        return new Pair<>( forString( seed1( seed ) ),
+                           forString( seed2( seed ) ) );
+    }
+
+    /**
+     * @param seed any number; equal seeds give equal pairs.
+     * @return two unrelated hash functions for byte arrays.
+     */
+    public static Pair<byte [ ]> bytesPair( long seed )
+    {
+        return new Pair<>( forBytes( seed1( seed ) ),
+                           forBytes( seed2( seed ) ) );
+    }
+
+    /**
+     * @param seed any number; equal seeds give equal pairs.
+     * @return two unrelated hash functions for Integers.
+     */
+    public static Pair<Integer> integerPair( long seed )
+    {
+        return new Pair<>( forInteger( seed1( seed ) ),
+                           forInteger( seed2( seed ) ) );
+    }
+
+    /**
+     * @param seed any number; equal seeds give equal pairs.
+     * @return two unrelated hash functions for Longs.
+     */
+    public static Pair<Long> longPair( long seed )
+    {
+        return new Pair<>( forLong( seed1( seed ) ),
+                           forLong( seed2( seed ) ) );
+    }
+
+    /**
+     * Derives the first seed of a pair: the high half of the first
+     * SplitMix64 output.
+     * @param seed the pair's seed.
+     * @return the first seed.
+     */
+    private static int seed1( long seed )
+    {
+        return (int) ( splitMix( seed ) >>> 32 );
+    }
+
+    /**
+     * Derives the second seed of a pair from the next SplitMix64 output, so
+     * it never equals the first.
+     * @param seed the pair's seed.
+     * @return the second seed.
+     */
+    private static int seed2( long seed )
+    {
+        int s = (int) ( splitMix( seed + 0x9E3779B97F4A7C15L ) >>> 32 );
+        return ( s == seed1( seed ) ) ? ~s : s;
+    }
+
+    /**
+     * One step of SplitMix64.
+     * @param z the state.
+     * @return a well-mixed 64-bit value.
+     */
+    private static long splitMix( long z )
+    {
+        z += 0x9E3779B97F4A7C15L;
+        z = ( z ^ ( z >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+        z = ( z ^ ( z >>> 27 ) ) * 0x94D049BB133111EBL;
+        return z ^ ( z >>> 31 );
+    }
+
+    /**
+     * MurmurHash3 of the four bytes of an int.
+     * @param x the key.
+     * @param seed the seed.
+     * @return the hash code.
+     */
+    static int hashInt( int x, int seed )
+    {
+        return finish( mixHash( seed, mixKey( x ) ), 4 );
+    }
+
+    /**
+     * MurmurHash3 of the eight bytes of a long, low half first.
+     * @param x the key.
+     * @param seed the seed.
+     * @return the hash code.
+     */
+    static int hashLong( long x, int seed )
+    {
+        int h = mixHash( seed, mixKey( (int) x ) );
+        h = mixHash( h, mixKey( (int) ( x >>> 32 ) ) );
+        return finish( h, 8 );
+    }
+
+    /**
+     * MurmurHash3 of the chars of a String, two chars per block.
+     * @param x the key.
+     * @param seed the seed.
+     * @return the hash code.
+     */
+    static int hashChars( CharSequence x, int seed )
+    {
+        int h = seed;
+        int n = x.length( );
+        for ( int i = 1; i < n; i += 2 )
+            h = mixHash( h, mixKey( x.charAt( i - 1 )
+                                    | ( x.charAt( i ) << 16 ) ) );
+        if ( ( n & 1 ) == 1 )
+            h ^= mixKey( x.charAt( n - 1 ) );
+        return finish( h, 2 * n );
+    }
+
+    /**
+     * MurmurHash3 of a byte array, little-endian blocks.
+     * @param x the key.
+     * @param seed the seed.
+     * @return the hash code.
+     */
+    static int hashBytes( byte [ ] x, int seed )
+    {
+        int h = seed;
+        int n = x.length;
+        int end = n & ~3;
+        for ( int i = 0; i < end; i += 4 )
+            h = mixHash( h, mixKey( ( x[ i ] & 0xFF )
+                                    | ( x[ i + 1 ] & 0xFF ) << 8
+                                    | ( x[ i + 2 ] & 0xFF ) << 16
+                                    | x[ i + 3 ] << 24 ) );
+        int k = 0;
+        switch ( n & 3 )                            //0 to 3 bytes left
+        {
+            case 3:
+                k ^= ( x[ end + 2 ] & 0xFF ) << 16;
+            case 2:
+                k ^= ( x[ end + 1 ] & 0xFF ) << 8;
+            case 1:
+                k ^= x[ end ] & 0xFF;
+                h ^= mixKey( k );
+        }
+        return finish( h, n );
+    }
+
+    private static int mixKey( int k )
+    {
+        return Integer.rotateLeft( k * C1, 15 ) * C2;
+    }
+
+    private static int mixHash( int h, int k )
+    {
+        return Integer.rotateLeft( h ^ k, 13 ) * 5 + 0xE6546B64;
+    }
+
+    private static int finish( int h, int length )
+    {
+        h ^= length;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ ( h >>> 16 );
+    }
+}
@@ -0,0 +1,144 @@
+package cop3530;
+
+import java.util.Arrays;
+/**
+ *
+ * File: HashMapStatistics.java
+ *
+ * The purpose of this class is to hold a snapshot of the counters a
+ * MyHashMap keeps as it runs, to help spot a poor pair of hash functions:
+ * long lists, many probes per get, or nearly every insert landing in the
+ * same one of the two candidate lists.
+ *
+ * @author Aqib
+ */
+public class HashMapStatistics
+{
+    private final int size;                     //Number of items
+    private final int lists;                    //Number of lists
+    private final int maxLength;                //Longest list
+    private final long gets;                    //Calls to get
+    private final long getProbes;               //Nodes examined by get
+    private final long inserts;                 //New keys added
+    private final long hash2Inserts;            //...to list 2
+    private final int resizes;                  //Rehashes started
+    private final long rehashNanos;             //Time moving Nodes
+    private final int [ ] lengths;              //# of lists by size
+
+    /**
+     * Constructs a snapshot. Called by MyHashMap.getStatistics.
+     */
+    HashMapStatistics( int size, int lists, int maxLength, long gets,
+                       long getProbes, long inserts, long hash2Inserts,
+                       int resizes, long rehashNanos, int [ ] lengths )
+    {
+        this.size = size;
+        this.lists = lists;
+        this.maxLength = maxLength;
+        this.gets = gets;
+        this.getProbes = getProbes;
+        this.inserts = inserts;
+        this.hash2Inserts = hash2Inserts;
+        this.resizes = resizes;
+        this.rehashNanos = rehashNanos;
+        this.lengths = lengths;
+    }
+
+    /**
+     * @return the number of items in the map.
+     */
+    public int getSize( )
+    {
+        return size;
+    }
+
+    /**
+     * @return the number of lists, including any old lists still being
+     * rehashed.
+     */
+    public int getLists( )
+    {
+        return lists;
+    }
+
+    /**
+     * @return the number of items in the longest list.
+     */
+    public int getMaxLength( )
+    {
+        return maxLength;
+    }
+
+    /**
+     * @return the number of calls to get.
+     */
+    public long getGets( )
+    {
+        return gets;
+    }
+
+    /**
+     * @return the average number of Nodes examined per call to get.
+     */
+    public double getAverageProbes( )
+    {
+        return ( gets == 0 ) ? 0 : (double) getProbes / gets;
+    }
+
+    /**
+     * @return the number of new keys added.
+     */
+    public long getInserts( )
+    {
+        return inserts;
+    }
+
+    /**
+     * @return the percentage of new keys that went to the list chosen by
+     * the second hash function.
+     */
+    public double getHash2Percent( )
+    {
+        return ( inserts == 0 ) ? 0 : 100.0 * hash2Inserts / inserts;
+    }
+
+    /**
+     * @return the number of times the array was enlarged.
+     */
+    public int getResizes( )
+    {
+        return resizes;
+    }
+
+    /**
+     * @return the total time spent moving Nodes to enlarged arrays, in
+     * nanoseconds.
+     */
+    public long getRehashNanos( )
+    {
+        return rehashNanos;
+    }
+
+    /**
+     * @return the distribution of list sizes, as from MyHashMap.getLengths.
+     */
+    public int [ ] getLengths( )
+    {
+        return lengths.clone( );
+    }
+
+    /**
+     * Represents the statistics as a String.
+     * @return the statistics.
+     */
+    public String toString( )
+    {
+        int used = maxLength + 1;
+        return String.format( "size=%d lists=%d maxLength=%d "
+                + "avgProbes=%.2f hash2=%.1f%% resizes=%d rehashMs=%.3f "
+                + "lengths=%s",
+                size, lists, maxLength, getAverageProbes( ),
+                getHash2Percent( ), resizes, rehashNanos / 1e6,
+                Arrays.toString( Arrays.copyOf( lengths, used ) ) );
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ *
+ * File: IntHashFunction.java
+ *
+ * The purpose of this class is to provide a Hash function interface for
+ * primitive int keys.
+ */
+
+package cop3530 ;
+
+public interface IntHashFunction
+{
+    int hashCode(int x) ;
+}
@@ -0,0 +1,417 @@
+package cop3530;
+
+import java.util.Arrays;
+/**
+ *
+ * File: IntObjMyHashMap.java
+ *
+ * The purpose of this class is to implement a hash map with primitive int
+ * keys. Keys are stored unboxed in a flat int array and placed with the same
+ * two-slot cuckoo scheme as CuckooHashMap, so no key is ever boxed and no
+ * per-entry node is allocated.
+ *
+ * @author Aqib
+ * @param <ValueType> A generic value.
+ */
+public class IntObjMyHashMap<ValueType>
+{
+    private IntHashFunction hash1;                      //Hash function 1
+    private IntHashFunction hash2;                      //Hash function 2
+    private int [ ] keys = null;                        //Key slots
+    private Object [ ] values = null;                   //Value slots
+    private boolean [ ] used = null;                    //Slot occupied?
+    private int [ ] stashKeys = null;                   //Overflow keys
+    private Object [ ] stashValues = null;              //Overflow values
+    private int stashSize;                              //Items in the stash
+    private int stashLimit;                             //Items that rehash
+    private int theSize;                                //Number of items
+    private int homelessKey;                            //Left by failed place
+    private Object homelessValue;                       //Left by failed place
+    private static final int DEFAULT_ARR_SIZE = 11 ;    //Array size
+    private static final int STASH_SIZE = 4 ;           //Initial stash size
+    private static final int MAX_DISPLACEMENTS = 32 ;   //Eviction bound
+    private static final int MAX_GROW_ROUNDS = 4 ;      //Rehash growth bound
+
+    /**
+     * Constructor that creates a hash map with two separate hash functions.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     */
+    public IntObjMyHashMap( IntHashFunction h1, IntHashFunction h2 )
+    {
+        hash1 = h1;            //initialize instance var's
+        hash2 = h2;
+        doClear( );            //private routine--sets arrays and theSize
+    }
+
+    /**
+     * Get method the size of the hash map.
+     * @return the number of elements in the hash map.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Clears the hash map. Resets the size.
+     */
+    public void clear( )
+    {
+        doClear( );
+    }
+
+    /**
+     * Clears the arrays; resets size, slots and stash.
+     */
+    private void doClear( )
+    {
+        theSize = 0;
+        stashSize = 0;
+        stashLimit = STASH_SIZE;
+        keys = new int[ DEFAULT_ARR_SIZE ];
+        values = new Object[ DEFAULT_ARR_SIZE ];
+        used = new boolean[ DEFAULT_ARR_SIZE ];
+        stashKeys = new int[ STASH_SIZE ];
+        stashValues = new Object[ STASH_SIZE ];
+    }
+
+    /**
+     * Adds a key to the hash map. If the key has already been added previously,
+     * then the previous value is replaced with the new.
+     * @param k the key.
+     * @param v the value.
+     * @return the value being overwritten. If no value is being overwritten,
+     * null is returned.
+     */
+    public ValueType put( int k, ValueType v )
+    {
+        int slot = findSlot( k );
+        if ( slot >= 0 )                            //Already in a table slot
+        {
+            ValueType val = ( ValueType ) values[ slot ];
+            values[ slot ] = v;
+            return val;
+        }
+        int stashSlot = findStash( k );
+        if ( stashSlot >= 0 )                       //Already in the stash
+        {
+            ValueType val = ( ValueType ) stashValues[ stashSlot ];
+            stashValues[ stashSlot ] = v;
+            return val;
+        }
+
+        if ( theSize + 1 > keys.length / 2 )  //Keep load factor under half
+            rehash( keys.length * 2 + 1 );
+
+        theSize++;
+        insert( k, v, true );
+        return null;
+    }
+
+    /**
+     * Places a new key, evicting residents to their alternate slot as needed.
+     * If the eviction chain runs too long, the homeless key goes to the stash.
+     * If the stash already holds stashLimit keys, the table is rehashed once
+     * first; if the key still has no place after that, the stash grows.
+     * @param k the key (not already present).
+     * @param v the value.
+     * @param mayRehash false once this insert has rehashed.
+     */
+    private void insert( int k, Object v, boolean mayRehash )
+    {
+        if ( place( k, v ) )
+            return;
+        if ( stashSize >= stashLimit && mayRehash )     //Cycle--grow and
+        {                                               //try again
+            int leftKey = homelessKey;
+            Object leftValue = homelessValue;
+            rehash( keys.length * 2 + 1 );
+            insert( leftKey, leftValue, false );
+            return;
+        }
+        addToStash( homelessKey, homelessValue );       //Chain too long
+    }
+
+    /**
+     * Adds a key to the stash, doubling the stash if it is full.
+     * @param k the key.
+     * @param v the value.
+     */
+    private void addToStash( int k, Object v )
+    {
+        if ( stashSize == stashKeys.length )
+        {
+            stashKeys = Arrays.copyOf( stashKeys, stashSize * 2 );
+            stashValues = Arrays.copyOf( stashValues, stashSize * 2 );
+        }
+        stashKeys[ stashSize ] = k;
+        stashValues[ stashSize ] = v;
+        stashSize++;
+    }
+
+    /**
+     * Runs the eviction chain for a key, using the table only.
+     * @param k the key.
+     * @param v the value.
+     * @return false if the chain ran too long; the entry left without a slot
+     * is saved in homelessKey/homelessValue.
+     */
+    private boolean place( int k, Object v )
+    {
+        int curKey = k;
+        Object curVal = v;
+        int pos = myHash1( k );
+
+        for ( int i = 0; i < MAX_DISPLACEMENTS; i++ )
+        {
+            if ( !used[ pos ] )                         //Free slot
+            {
+                keys[ pos ] = curKey;
+                values[ pos ] = curVal;
+                used[ pos ] = true;
+                return true;
+            }
+            if ( i == 0 )                               //Try second choice
+            {                                           //before evicting
+                int alt = myHash2( k );
+                if ( !used[ alt ] )
+                {
+                    keys[ alt ] = curKey;
+                    values[ alt ] = curVal;
+                    used[ alt ] = true;
+                    return true;
+                }
+            }
+
+            int evictedKey = keys[ pos ];               //Kick out resident
+            Object evictedVal = values[ pos ];
+            keys[ pos ] = curKey;
+            values[ pos ] = curVal;
+            curKey = evictedKey;
+            curVal = evictedVal;
+            pos = alternate( curKey, pos );             //Send it home
+        }
+
+        homelessKey = curKey;
+        homelessValue = curVal;
+        return false;
+    }
+
+    /**
+     * Returns the other slot a key may occupy.
+     * @param k the key.
+     * @param pos the slot the key is currently in.
+     * @return the alternate slot.
+     */
+    private int alternate( int k, int pos )
+    {
+        int h1 = myHash1( k );
+        return ( h1 == pos ) ? myHash2( k ) : h1;
+    }
+
+    /**
+     * Generates a hash code using the first hash function.
+     * @param k key that the hash code is being generated for.
+     * @return a hash code.
+     */
+    private int myHash1( int k )
+    {
+        return Math.abs( hash1.hashCode( k ) % keys.length );
+    }
+
+    /**
+     * Generates hash code using the second hash function.
+     * @param k key that the hash code is being generated for.
+     * @return a hash code.
+     */
+    private int myHash2( int k )
+    {
+        return Math.abs( hash2.hashCode( k ) % keys.length );
+    }
+
+    /**
+     * Probes the two candidate slots of a key.
+     * @param k the key in question.
+     * @return the slot holding the key, or -1 if not found.
+     */
+    private int findSlot( int k )
+    {
+        int pos = myHash1( k );
+        if ( used[ pos ] && keys[ pos ] == k )
+            return pos;
+        pos = myHash2( k );
+        if ( used[ pos ] && keys[ pos ] == k )
+            return pos;
+        return -1;
+    }
+
+    /**
+     * Scans the stash for a key.
+     * @param k the key in question.
+     * @return the stash index holding the key, or -1 if not found.
+     */
+    private int findStash( int k )
+    {
+        for ( int i = 0; i < stashSize; i++ )
+            if ( stashKeys[ i ] == k )
+                return i;
+        return -1;
+    }
+
+    /**
+     * Private routine that rebuilds the table with a new length, as in
+     * CuckooHashMap. Each round starts from a stash of STASH_SIZE, so the
+     * stash shrinks back whenever the residents fit. Keeps growing until
+     * they do, for at most MAX_GROW_ROUNDS rounds; keys whose codes all
+     * collide can never be separated, so the last round goes back to
+     * newLength and lets the stash grow instead.
+     * @param newLength the length of the new table.
+     */
+    private void rehash( int newLength )
+    {
+        int [ ] oldKeys = keys;
+        Object [ ] oldValues = values;
+        boolean [ ] oldUsed = used;
+        int [ ] oldStashKeys = stashKeys;
+        Object [ ] oldStashValues = stashValues;
+        int oldStashSize = stashSize;
+
+        boolean placed = false;
+        int length = newLength;
+        for ( int round = 0; !placed; round++ )
+        {
+            boolean lastRound = ( round == MAX_GROW_ROUNDS );
+            if ( lastRound )                    //Growing did not help
+                length = newLength;
+            keys = new int[ length ];
+            values = new Object[ length ];
+            used = new boolean[ length ];
+            stashKeys = new int[ STASH_SIZE ];
+            stashValues = new Object[ STASH_SIZE ];
+            stashSize = 0;
+            placed = true;
+
+            for ( int i = 0; placed && i < oldKeys.length; i++ )
+                if ( oldUsed[ i ] )
+                    placed = reinsert( oldKeys[ i ], oldValues[ i ],
+                                       lastRound );
+            for ( int i = 0; placed && i < oldStashSize; i++ )
+                placed = reinsert( oldStashKeys[ i ], oldStashValues[ i ],
+                                   lastRound );
+
+            length = length * 2 + 1;
+        }
+        stashLimit = Math.max( STASH_SIZE, stashSize * 2 );
+        homelessValue = null;
+    }
+
+    /**
+     * Places a resident during a rehash, without triggering another rehash.
+     * @param k the key.
+     * @param v the value.
+     * @param mayGrowStash true to grow the stash rather than fail.
+     * @return false if the key could not be placed.
+     */
+    private boolean reinsert( int k, Object v, boolean mayGrowStash )
+    {
+        if ( place( k, v ) )
+            return true;
+        if ( stashSize < stashKeys.length || mayGrowStash )
+        {
+            addToStash( homelessKey, homelessValue );
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a specific key from the hash table.
+     * @param k the key of the item being removed.
+     * @return true if the item is removed, else false.
+     */
+    public boolean remove( int k )
+    {
+        int slot = findSlot( k );
+        if ( slot >= 0 )
+        {
+            used[ slot ] = false;
+            values[ slot ] = null;
+            theSize--;
+            return true;
+        }
+        int stashSlot = findStash( k );
+        if ( stashSlot >= 0 )                   //Fill the hole with the last
+        {
+            stashSize--;
+            stashKeys[ stashSlot ] = stashKeys[ stashSize ];
+            stashValues[ stashSlot ] = stashValues[ stashSize ];
+            if ( stashSize * 2 < stashLimit )   //Stuck keys are leaving
+                stashLimit = Math.max( STASH_SIZE, stashSize * 2 );
+            stashValues[ stashSize ] = null;
+            theSize--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value of a given key.
+     * @param k the key.
+     * @return the value, or null if not found.
+     */
+    public ValueType get( int k )
+    {
+        int slot = findSlot( k );
+        if ( slot >= 0 )
+            return ( ValueType ) values[ slot ];
+        int stashSlot = findStash( k );
+        if ( stashSlot >= 0 )
+            return ( ValueType ) stashValues[ stashSlot ];
+        return null;
+    }
+
+    /**
+     * Determines whether a key is in the hash map.
+     * @param k the key.
+     * @return true if the key is present.
+     */
+    public boolean containsKey( int k )
+    {
+        return findSlot( k ) >= 0 || findStash( k ) >= 0;
+    }
+
+    /**
+     * Returns every key in the hash map, in no particular order.
+     * @return a new array of the keys.
+     */
+    public int [ ] keys( )
+    {
+        int [ ] result = new int[ theSize ];
+        int n = 0;
+        for ( int i = 0; i < keys.length; i++ )
+            if ( used[ i ] )
+                result[ n++ ] = keys[ i ];
+        System.arraycopy( stashKeys, 0, result, n, stashSize );
+        return result;
+    }
+
+    /**
+     * Represents the hash table as a String.
+     * @return the hash table.
+     */
+    public String toString( )
+    {
+        StringBuilder sb = new StringBuilder() ;
+        sb.append( "[ " );
+        int [ ] all = keys( );
+        Arrays.sort( all );
+        for ( int k : all )
+        {
+            sb.append( k ).append( "=" ).append( get( k ) );
+            sb.append( " " );
+        }
+        sb.append(" ]");
+        return new String( sb );
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ *
+ * File: LongHashFunction.java
+ *
+ * The purpose of this class is to provide a Hash function interface for
+ * primitive long keys.
+ */
+
+package cop3530 ;
+
+public interface LongHashFunction
+{
+    int hashCode(long x) ;
+}
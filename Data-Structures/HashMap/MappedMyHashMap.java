@@ -0,0 +1,749 @@
+package cop3530;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+/**
+ *
+ * File: MappedMyHashMap.java
+ *
+ * The purpose of this class is to implement a hash map that lives in a
+ * memory-mapped file instead of on the Java heap. Keys and values are stored
+ * as bytes produced by a Codec, chained in lists the same way MyHashMap does,
+ * and each new key goes to the shorter of its two candidate lists.
+ *
+ * Everything, including the list heads, is kept in the file, so reopening the
+ * file with the same hash functions and codecs gives back the same map
+ * without rebuilding it. New entries are appended to the file. Space given
+ * up by remove, by replacing a value with one of a different length, or by
+ * a rehash is counted as wasted, and once it is over half of the used space
+ * compact slides the live entries down over it and shrinks the file. The
+ * file is mapped in pieces that double as it grows, so a small map has a
+ * small file.
+ *
+ * File layout (all offsets are longs from the start of the file):
+ *   header:  magic, version, number of lists, number of items,
+ *            offset of the list table, end of the used space, wasted bytes
+ *   table:   one long per list (offset of the first entry, 0 if empty),
+ *            then one int per list (its length)
+ *   entry:   next, code1, code2, key length, value length, key, value
+ *
+ * @author Aqib
+ * @param <KeyType> A generic key.
+ * @param <ValueType> A generic value.
+ */
+public class MappedMyHashMap<KeyType,ValueType> implements Closeable
+{
+    private HashFunction<KeyType> hash1;                //Hash function 1
+    private HashFunction<KeyType> hash2;                //Hash function 2
+    private Codec<KeyType> keyCodec;                    //Key <-> bytes
+    private Codec<ValueType> valueCodec;                //Value <-> bytes
+    private FileChannel channel;                        //The backing file
+    private List<MappedByteBuffer> chunks = new ArrayList<>( ); //Mapped file
+
+    private int numLists;                               //Cached from header
+    private int theSize;                                //Cached from header
+    private long tableOffset;                           //Cached from header
+    private long dataEnd;                               //Cached from header
+    private long wasted;                                //Cached from header
+
+    private static final int MAGIC = 0x4D484D31 ;       //"MHM1"
+    private static final int VERSION = 1 ;
+    private static final int DEFAULT_ARR_SIZE = 11 ;    //Array size
+    private static final long CHUNK_SIZE = 1L << 30 ;   //Most per mapping
+    private static final long MIN_MAPPING = 1L << 16 ;  //First mapping size
+    private static final long MIN_COMPACT = 1L << 20 ;  //Waste worth a compact
+    private static final int MAX_LISTS =                //Table fits a chunk
+            (int) ( CHUNK_SIZE / 12 ) ;
+
+    private static final int MAGIC_POS = 0 ;            //Header fields
+    private static final int VERSION_POS = 4 ;
+    private static final int LISTS_POS = 8 ;
+    private static final int SIZE_POS = 12 ;
+    private static final int TABLE_POS = 16 ;
+    private static final int END_POS = 24 ;
+    private static final int WASTED_POS = 32 ;
+    private static final int HEADER_SIZE = 64 ;
+
+    private static final int NEXT = 0 ;                 //Entry fields
+    private static final int CODE1 = 8 ;
+    private static final int CODE2 = 12 ;
+    private static final int KEY_LEN = 16 ;
+    private static final int VALUE_LEN = 20 ;
+    private static final int ENTRY_HEADER = 24 ;
+
+    /**
+     * Opens the hash map stored in a file, creating an empty one if the file
+     * does not exist or is empty. The same hash functions and codecs must be
+     * used every time a file is opened.
+     * @param file the backing file.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     * @param keys turns keys into bytes and back.
+     * @param values turns values into bytes and back.
+     * @throws IOException if the file cannot be opened or is not a map.
+     */
+    public MappedMyHashMap( Path file, HashFunction<KeyType> h1,
+                            HashFunction<KeyType> h2, Codec<KeyType> keys,
+                            Codec<ValueType> values ) throws IOException
+    {
+        hash1 = h1;            //initialize instance var's
+        hash2 = h2;
+        keyCodec = keys;
+        valueCodec = values;
+        channel = FileChannel.open( file, StandardOpenOption.CREATE,
+                                    StandardOpenOption.READ,
+                                    StandardOpenOption.WRITE );
+        boolean isNew = channel.size( ) == 0;
+        mapUpTo( HEADER_SIZE );
+
+        if ( isNew )
+            doClear( );
+        else
+        {
+            ByteBuffer header = chunks.get( 0 );
+            if ( header.getInt( MAGIC_POS ) != MAGIC
+                    || header.getInt( VERSION_POS ) != VERSION )
+            {
+                channel.close( );
+                throw new IOException( file + " is not a MappedMyHashMap" );
+            }
+            numLists = header.getInt( LISTS_POS );
+            theSize = header.getInt( SIZE_POS );
+            tableOffset = header.getLong( TABLE_POS );
+            dataEnd = header.getLong( END_POS );
+            wasted = header.getLong( WASTED_POS );
+            mapUpTo( dataEnd );
+        }
+    }
+
+    /**
+     * Get method the size of the hash map.
+     * @return the number of elements in the hash map.
+     */
+    public int size( )
+    {
+        return theSize;
+    }
+
+    /**
+     * Clears the hash map. Resets the size and shrinks the file.
+     */
+    public void clear( )
+    {
+        doClear( );
+        shrinkFile( );
+    }
+
+    /**
+     * Writes a fresh header and an empty list table.
+     */
+    private void doClear( )
+    {
+        ByteBuffer header = chunks.get( 0 );
+        header.putInt( MAGIC_POS, MAGIC );
+        header.putInt( VERSION_POS, VERSION );
+        dataEnd = HEADER_SIZE;
+        setTable( newTable( DEFAULT_ARR_SIZE ), DEFAULT_ARR_SIZE );
+        setSize( 0 );
+        setWasted( 0 );
+    }
+
+    /**
+     * Adds a key to the hash map. If the key has already been added previously,
+     * then the previous value is replaced with the new.
+     * @param k the key.
+     * @param v the value.
+     * @return the value being overwritten. If no value is being overwritten,
+     * null is returned.
+     */
+    public ValueType put( KeyType k, ValueType v )
+    {
+        if ( theSize > numLists && numLists < MAX_LISTS ) //Too many items,
+            rehash( );                                    //so enlarge.
+
+        int code1 = hash1.hashCode( k );    //Find both hash codes.
+        int code2 = hash2.hashCode( k );
+        byte [ ] keyBytes = encode( keyCodec, k );
+        byte [ ] valueBytes = encode( valueCodec, v );
+        int hash1Result = index( code1 );
+        int hash2Result = index( code2 );
+
+        int list = hash1Result;
+        long contains = listContains( keyBytes, code1, hash1Result );
+        if ( contains == 0 )
+        {
+            list = hash2Result;
+            contains = listContains( keyBytes, code1, hash2Result );
+        }
+
+        if ( contains == 0 )                //If neither contains
+        {
+            setSize( theSize + 1 );
+            if ( getInt( lengthPos( hash1Result ) )
+                    > getInt( lengthPos( hash2Result ) ) )
+                list = hash2Result;         //List 2 is smaller
+            else
+                list = hash1Result;         //List 1 is smaller or equal
+            long entry = newEntry( keyBytes, valueBytes, code1, code2 );
+            link( entry, list );
+            return null;
+        }
+
+        ValueType val = readValue( contains );
+        if ( getInt( contains + VALUE_LEN ) == valueBytes.length )
+            putBytes( valueBytes, contains + ENTRY_HEADER + keyBytes.length );
+        else                                //Different length--append a copy
+        {
+            unlink( contains, list );
+            setWasted( wasted + entrySize( contains ) );
+            link( newEntry( keyBytes, valueBytes, code1, code2 ), list );
+            compactIfWasteful( );
+        }
+        return val;
+    }
+
+    /**
+     * Returns the value of a given key.
+     * @param k the key.
+     * @return the value, or null if not found.
+     */
+    public ValueType get( KeyType k )
+    {
+        int code1 = hash1.hashCode( k );
+        byte [ ] keyBytes = encode( keyCodec, k );
+        long contains = listContains( keyBytes, code1, index( code1 ) );
+        if ( contains == 0 )
+            contains = listContains( keyBytes, code1,
+                                     index( hash2.hashCode( k ) ) );
+        return ( contains == 0 ) ? null : readValue( contains );
+    }
+
+    /**
+     * Removes a specific key from the hash table.
+     * @param k the key of the item being removed.
+     * @return true if the item is removed, else false.
+     */
+    public boolean remove( KeyType k )
+    {
+        int code1 = hash1.hashCode( k );
+        byte [ ] keyBytes = encode( keyCodec, k );
+        int list = index( code1 );
+        long contains = listContains( keyBytes, code1, list );
+        if ( contains == 0 )
+        {
+            list = index( hash2.hashCode( k ) );
+            contains = listContains( keyBytes, code1, list );
+        }
+        if ( contains == 0 )
+            return false;
+
+        unlink( contains, list );
+        setSize( theSize - 1 );
+        setWasted( wasted + entrySize( contains ) );
+        compactIfWasteful( );
+        return true;
+    }
+
+    /**
+     * Returns the bytes of the file given up by removed and replaced entries
+     * and old tables, which compact will reclaim.
+     * @return the wasted bytes.
+     */
+    public long wastedBytes( )
+    {
+        return wasted;
+    }
+
+    /**
+     * Reclaims wasted space. Live entries are slid down in file order to
+     * close the gaps, a new list table is appended after them and every
+     * entry is relinked into it, then the file is shrunk. The offsets of the
+     * live entries are held in memory meanwhile, eight bytes per entry.
+     */
+    public void compact( )
+    {
+        long [ ] entries = new long[ theSize ];
+        int n = 0;
+        for ( int i = 0; i < numLists; i++ )
+            for ( long curr = getLong( headPos( i ) ); curr != 0;
+                  curr = getLong( curr + NEXT ) )
+                entries[ n++ ] = curr;
+        Arrays.sort( entries );
+
+        dataEnd = HEADER_SIZE;              //Never passes an entry not yet
+        for ( int i = 0; i < n; i++ )       //moved, so nothing is overwritten
+        {
+            long size = entrySize( entries[ i ] );
+            long to = allocate( size );
+            if ( to != entries[ i ] )
+                copyBytes( entries[ i ], to, (int) size );
+            entries[ i ] = to;
+        }
+
+        setTable( newTable( numLists ), numLists );
+        for ( int i = 0; i < n; i++ )
+            linkShorter( entries[ i ] );
+        setWasted( 0 );
+        shrinkFile( );
+    }
+
+    /**
+     * Writes any changes still in memory out to the file.
+     */
+    public void force( )
+    {
+        for ( MappedByteBuffer chunk : chunks )
+            chunk.force( );
+    }
+
+    /**
+     * Writes out any changes and closes the file. The map may not be used
+     * afterwards.
+     * @throws IOException if the file cannot be closed.
+     */
+    public void close( ) throws IOException
+    {
+        force( );
+        chunks.clear( );
+        channel.close( );
+    }
+
+    /**
+     * Private routine that enlarges the list table. A new table four times
+     * the size is appended to the file and every entry is relinked into it
+     * using its saved hash codes; the old table is counted as wasted.
+     */
+    private void rehash( )
+    {
+        int oldLists = numLists;
+        long oldTable = tableOffset;
+        int newLists = (int) Math.min( (long) oldLists * 4, MAX_LISTS );
+        long newTable = newTable( newLists );
+
+        setTable( newTable, newLists );
+        for ( int i = 0; i < oldLists; i++ )
+        {
+            long curr = getLong( oldTable + 8L * i );
+            while ( curr != 0 )
+            {
+                long next = getLong( curr + NEXT );
+                linkShorter( curr );
+                curr = next;
+            }
+        }
+        setWasted( wasted + align( 12L * oldLists ) );
+    }
+
+    /**
+     * Adds an entry to the shorter of its two lists, using its saved hash
+     * codes.
+     * @param entry the offset of the entry.
+     */
+    private void linkShorter( long entry )
+    {
+        int hash1Result = index( getInt( entry + CODE1 ) );
+        int hash2Result = index( getInt( entry + CODE2 ) );
+        link( entry, ( getInt( lengthPos( hash1Result ) )
+                       <= getInt( lengthPos( hash2Result ) ) )
+                     ? hash1Result : hash2Result );
+    }
+
+    /**
+     * Compacts the file once more than half of its used space, and at least
+     * MIN_COMPACT bytes, is wasted. The cost is spread over the removes and
+     * replaces that produced the waste.
+     */
+    private void compactIfWasteful( )
+    {
+        if ( wasted >= MIN_COMPACT && wasted > ( dataEnd - HEADER_SIZE ) / 2 )
+            compact( );
+    }
+
+    /**
+     * Reduces a raw hash code to a list number.
+     * @param code the hash code from one of the hash functions.
+     * @return the list number.
+     */
+    private int index( int code )
+    {
+        return Math.abs( code % numLists );
+    }
+
+    /**
+     * Determines if a list contains a specific key, comparing encoded bytes.
+     * @param keyBytes the encoded key.
+     * @param code1 the key's code from the first hash function.
+     * @param list the list being searched.
+     * @return the offset of the entry, or 0 if not found.
+     */
+    private long listContains( byte [ ] keyBytes, int code1, int list )
+    {
+        long current = getLong( headPos( list ) );
+        while ( current != 0 )
+        {
+            if ( getInt( current + CODE1 ) == code1
+                    && getInt( current + KEY_LEN ) == keyBytes.length
+                    && bytesEqual( keyBytes, current + ENTRY_HEADER ) )
+                return current;
+            current = getLong( current + NEXT );
+        }
+        return 0;
+    }
+
+    /**
+     * Adds an entry to the front of a list.
+     * @param entry the offset of the entry.
+     * @param list the list number.
+     */
+    private void link( long entry, int list )
+    {
+        putLong( entry + NEXT, getLong( headPos( list ) ) );
+        putLong( headPos( list ), entry );
+        putInt( lengthPos( list ), getInt( lengthPos( list ) ) + 1 );
+    }
+
+    /**
+     * Removes an entry from a list.
+     * @param entry the offset of the entry.
+     * @param list the list number.
+     */
+    private void unlink( long entry, int list )
+    {
+        long next = getLong( entry + NEXT );
+        long current = getLong( headPos( list ) );
+        if ( current == entry )                 //first entry
+            putLong( headPos( list ), next );
+        else
+        {
+            while ( getLong( current + NEXT ) != entry )
+                current = getLong( current + NEXT );
+            putLong( current + NEXT, next );
+        }
+        putInt( lengthPos( list ), getInt( lengthPos( list ) ) - 1 );
+    }
+
+    /**
+     * Appends a new, unlinked entry to the file.
+     * @return the offset of the entry.
+     */
+    private long newEntry( byte [ ] keyBytes, byte [ ] valueBytes,
+                           int code1, int code2 )
+    {
+        long entry = allocate( ENTRY_HEADER + keyBytes.length
+                               + valueBytes.length );
+        putLong( entry + NEXT, 0 );
+        putInt( entry + CODE1, code1 );
+        putInt( entry + CODE2, code2 );
+        putInt( entry + KEY_LEN, keyBytes.length );
+        putInt( entry + VALUE_LEN, valueBytes.length );
+        putBytes( keyBytes, entry + ENTRY_HEADER );
+        putBytes( valueBytes, entry + ENTRY_HEADER + keyBytes.length );
+        return entry;
+    }
+
+    /**
+     * Returns the space an entry takes in the file.
+     * @param entry the offset of the entry.
+     * @return the size in bytes, rounded up as allocate rounds it.
+     */
+    private long entrySize( long entry )
+    {
+        return align( ENTRY_HEADER + getInt( entry + KEY_LEN )
+                      + getInt( entry + VALUE_LEN ) );
+    }
+
+    private static long align( long bytes )
+    {
+        return ( bytes + 7 ) & ~7L;
+    }
+
+    /**
+     * Decodes the value of an entry.
+     * @param entry the offset of the entry.
+     * @return the value.
+     */
+    private ValueType readValue( long entry )
+    {
+        ByteBuffer buf = chunk( entry ).duplicate( );
+        buf.position( pos( entry ) + ENTRY_HEADER
+                      + getInt( entry + KEY_LEN ) );
+        return valueCodec.read( buf, getInt( entry + VALUE_LEN ) );
+    }
+
+    /**
+     * Appends an empty list table to the file.
+     * @param lists the number of lists.
+     * @return the offset of the table.
+     */
+    private long newTable( int lists )
+    {
+        long table = allocate( 12L * lists );
+        ByteBuffer buf = chunk( table );
+        int start = pos( table );
+        for ( int i = 0; i < 12 * lists; i += 4 )
+            buf.putInt( start + i, 0 );
+        return table;
+    }
+
+    /**
+     * Makes a table the current one and records it in the header.
+     */
+    private void setTable( long table, int lists )
+    {
+        tableOffset = table;
+        numLists = lists;
+        chunks.get( 0 ).putLong( TABLE_POS, table );
+        chunks.get( 0 ).putInt( LISTS_POS, lists );
+    }
+
+    /**
+     * Updates the wasted space and records it in the header.
+     */
+    private void setWasted( long newWasted )
+    {
+        wasted = newWasted;
+        chunks.get( 0 ).putLong( WASTED_POS, newWasted );
+    }
+
+    /**
+     * Updates the number of items and records it in the header.
+     */
+    private void setSize( int newSize )
+    {
+        theSize = newSize;
+        chunks.get( 0 ).putInt( SIZE_POS, newSize );
+    }
+
+    private long headPos( int list )
+    {
+        return tableOffset + 8L * list;
+    }
+
+    private long lengthPos( int list )
+    {
+        return tableOffset + 8L * numLists + 4L * list;
+    }
+
+    /**
+     * Reserves space at the end of the used part of the file, growing the
+     * file if needed. A block never straddles two mappings.
+     * @param bytes the number of bytes.
+     * @return the offset of the block.
+     */
+    private long allocate( long bytes )
+    {
+        if ( bytes > CHUNK_SIZE )
+            throw new IllegalArgumentException( "Entry of " + bytes
+                                                + " bytes is too large" );
+        long start = dataEnd;
+        if ( pos( start ) + bytes > CHUNK_SIZE )    //Skip to next mapping
+            start = ( start / CHUNK_SIZE + 1 ) * CHUNK_SIZE;
+        mapUpTo( start + bytes );
+        dataEnd = align( start + bytes );           //Keep entries aligned
+        chunks.get( 0 ).putLong( END_POS, dataEnd );
+        return start;
+    }
+
+    /**
+     * Maps more of the file until the given offset is covered. The last
+     * mapping is replaced by one at least twice as long, up to CHUNK_SIZE,
+     * after which a new mapping is started; mapping past the end of the file
+     * extends it.
+     * @param end the offset that must be mapped.
+     */
+    private void mapUpTo( long end )
+    {
+        while ( mappedEnd( ) < end )
+        {
+            int last = chunks.size( ) - 1;
+            if ( last >= 0 && chunks.get( last ).capacity( ) < CHUNK_SIZE )
+            {
+                long start = last * CHUNK_SIZE;
+                long length = mappingLength( Math.max(
+                        2L * chunks.get( last ).capacity( ), end - start ) );
+                chunks.set( last, map( start, length ) );
+            }
+            else
+            {
+                long start = chunks.size( ) * CHUNK_SIZE;
+                chunks.add( map( start, mappingLength( end - start ) ) );
+            }
+        }
+    }
+
+    /**
+     * Maps only as much of the file as the used space needs and cuts the
+     * file to that length.
+     */
+    private void shrinkFile( )
+    {
+        int needed = (int) ( ( dataEnd - 1 ) / CHUNK_SIZE ) + 1;
+        while ( chunks.size( ) > needed )
+            chunks.remove( chunks.size( ) - 1 );
+        long start = ( needed - 1 ) * CHUNK_SIZE;
+        long length = mappingLength( dataEnd - start );
+        if ( length < chunks.get( needed - 1 ).capacity( ) )
+            chunks.set( needed - 1, map( start, length ) );
+        try
+        {
+            channel.truncate( mappedEnd( ) );
+        }
+        catch ( IOException e )
+        {
+            //Some systems refuse while old mappings live; space is reused
+        }
+    }
+
+    /**
+     * Returns the offset just past the mapped part of the file.
+     * @return the offset.
+     */
+    private long mappedEnd( )
+    {
+        int last = chunks.size( ) - 1;
+        return ( last < 0 ) ? 0
+                : last * CHUNK_SIZE + chunks.get( last ).capacity( );
+    }
+
+    /**
+     * Rounds a mapping length up to a power of two between MIN_MAPPING and
+     * CHUNK_SIZE.
+     * @param bytes the bytes needed.
+     * @return the length to map.
+     */
+    private static long mappingLength( long bytes )
+    {
+        long length = MIN_MAPPING;
+        while ( length < bytes && length < CHUNK_SIZE )
+            length *= 2;
+        return length;
+    }
+
+    /**
+     * Maps part of the file for reading and writing.
+     * @param start the offset of the part.
+     * @param length the length of the part.
+     * @return the mapping.
+     */
+    private MappedByteBuffer map( long start, long length )
+    {
+        try
+        {
+            return channel.map( FileChannel.MapMode.READ_WRITE, start,
+                                length );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( "Cannot map file", e );
+        }
+    }
+
+    private MappedByteBuffer chunk( long offset )
+    {
+        return chunks.get( (int) ( offset / CHUNK_SIZE ) );
+    }
+
+    private static int pos( long offset )
+    {
+        return (int) ( offset % CHUNK_SIZE );
+    }
+
+    private long getLong( long offset )
+    {
+        return chunk( offset ).getLong( pos( offset ) );
+    }
+
+    private void putLong( long offset, long x )
+    {
+        chunk( offset ).putLong( pos( offset ), x );
+    }
+
+    private int getInt( long offset )
+    {
+        return chunk( offset ).getInt( pos( offset ) );
+    }
+
+    private void putInt( long offset, int x )
+    {
+        chunk( offset ).putInt( pos( offset ), x );
+    }
+
+    private void putBytes( byte [ ] bytes, long offset )
+    {
+        ByteBuffer buf = chunk( offset ).duplicate( );
+        buf.position( pos( offset ) );
+        buf.put( bytes );
+    }
+
+    /**
+     * Copies bytes to a lower offset, in pieces. Each piece is read before
+     * it is written, and writing only reaches bytes already read, so the
+     * two ranges may overlap.
+     * @param from the offset to copy from.
+     * @param to the offset to copy to, below from.
+     * @param length the number of bytes.
+     */
+    private void copyBytes( long from, long to, int length )
+    {
+        byte [ ] piece = new byte[ Math.min( length, 1 << 16 ) ];
+        ByteBuffer src = chunk( from ).duplicate( );
+        ByteBuffer dst = chunk( to ).duplicate( );
+        src.position( pos( from ) );
+        dst.position( pos( to ) );
+        for ( int done = 0; done < length; done += piece.length )
+        {
+            int n = Math.min( piece.length, length - done );
+            src.get( piece, 0, n );
+            dst.put( piece, 0, n );
+        }
+    }
+
+    private boolean bytesEqual( byte [ ] bytes, long offset )
+    {
+        ByteBuffer buf = chunk( offset );
+        int start = pos( offset );
+        for ( int i = 0; i < bytes.length; i++ )
+            if ( buf.get( start + i ) != bytes[ i ] )
+                return false;
+        return true;
+    }
+
+    /**
+     * Encodes an object with a codec.
+     * @return the bytes.
+     */
+    private static <AnyType> byte [ ] encode( Codec<AnyType> codec, AnyType x )
+    {
+        byte [ ] bytes = new byte[ codec.size( x ) ];
+        codec.write( x, ByteBuffer.wrap( bytes ) );
+        return bytes;
+    }
+
+    /**
+     * Returns an array with a distribution of the hash table: entry s is the
+     * number of lists holding s items. The array has at least 20 entries and
+     * always covers the longest list.
+     * @return the distribution array.
+     */
+    public int [ ] getLengths()
+    {
+        int maxLength = 0;
+        for( int i = 0; i < numLists; i++ )
+            maxLength = Math.max( maxLength, getInt( lengthPos( i ) ) );
+        int [ ] count = new int [ Math.max( 20, maxLength + 1 ) ];
+        for( int i = 0; i < numLists; i++ )
+        {
+            int s = getInt( lengthPos( i ) );
+            count[ s ] = count[ s ] + 1;
+        }
+        return count;
+    }
+}
@@ -1,8 +1,20 @@
 package cop3530;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 /**
  *
  * File: MyHashMap.java
@@ -21,8 +33,32 @@ public class MyHashMap<KeyType,ValueType>
     private HashFunction<KeyType> hash1;                //Hash function 1
     private HashFunction<KeyType> hash2;                //Hash function 2
     private Node<KeyType, ValueType> [] arr = null;     //Hash Array
+    private int [ ] lengths = null;                     //List sizes of arr
+    private Node<KeyType, ValueType> [] oldArr = null;  //Array being drained
+    private int [ ] oldLengths = null;                  //List sizes of oldArr
+    private int migrateIndex;                           //Next old bucket
+    private Node<KeyType, ValueType> [] foundTable;     //Where locate found
+    private int [ ] foundSizes;                         //...its list sizes
+    private int foundIndex;                             //...its list
+    private Node<KeyType, ValueType> foundPrev;         //...Node before it
     private int theSize;                                //Number of items
+    private final boolean incremental;                  //Spread out rehash?
+    private int [ ] lengthCounts = null;                //# of lists by size
+    private int maxLength;                              //Longest list
+    private long probes;                                //Nodes examined
+    private long gets;                                  //Calls to get
+    private long getProbes;                             //Nodes examined by get
+    private long inserts;                               //New keys added
+    private long hash2Inserts;                          //...to list 2
+    private int resizes;                                //Rehashes started
+    private long rehashNanos;                           //Time moving Nodes
     private static final int DEFAULT_ARR_SIZE = 11 ;    //Array size
+    private static final int MIGRATE_STEP = 4 ;         //Buckets per call
+    private static final int BATCH_SIZE = 16 ;          //Keys per getAll step
+    private final int initialSize;                      //Array size on clear
+    private static final int SNAPSHOT_MAGIC = 0x4D48534E ;  //"MHSN"
+    private static final int SNAPSHOT_VERSION = 1 ;
+    private static final int SNAPSHOT_BUFFER = 1 << 16 ;    //Bytes per I/O
     
     /**
      * Constructor that creates Hash map with two separate hash functions.
@@ -31,8 +67,43 @@ public class MyHashMap<KeyType,ValueType>
      */
     public MyHashMap( HashFunction<KeyType> h1, HashFunction<KeyType> h2 )
     {
+        this( h1, h2, false );
+    }
+    
+    /**
+     * Constructor that creates Hash map with two separate hash functions and
+     * chooses how the array is enlarged. In incremental mode the old and the
+     * new array coexist after a resize, and every put, get and remove moves a
+     * few old buckets across, so no single call pays for the whole rehash.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     * @param incrementalRehash true to spread rehashing over later calls.
+     */
+    public MyHashMap( HashFunction<KeyType> h1, HashFunction<KeyType> h2,
+                      boolean incrementalRehash )
+    {
+        this( h1, h2, incrementalRehash, DEFAULT_ARR_SIZE );
+    }
+    
+    /**
+     * Constructor that creates Hash map with two separate hash functions,
+     * sized up front so that the given number of items can be added without
+     * any rehash.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     * @param incrementalRehash true to spread rehashing over later calls.
+     * @param expectedSize the number of items expected.
+     */
+    public MyHashMap( HashFunction<KeyType> h1, HashFunction<KeyType> h2,
+                      boolean incrementalRehash, int expectedSize )
+    {
+        if ( expectedSize < 0 )
+            throw new IllegalArgumentException( "Negative size: " 
+                                                + expectedSize );
         hash1 = h1;            //initialize instance var's
         hash2 = h2;
+        incremental = incrementalRehash;
+        initialSize = Math.max( DEFAULT_ARR_SIZE, expectedSize );
         doClear( );            //private routine--sets arr and theSize var's
     }
     
@@ -59,7 +130,14 @@ public class MyHashMap<KeyType,ValueType>
     private void doClear( )
     {
         theSize = 0;
-        arr = new Node[ DEFAULT_ARR_SIZE ];
+        arr = new Node[ initialSize ];
+        lengths = new int[ initialSize ];
+        oldArr = null;
+        oldLengths = null;
+        migrateIndex = 0;
+        lengthCounts = new int[ 20 ];
+        lengthCounts[ 0 ] = initialSize;
+        maxLength = 0;
     }
     
     /**
@@ -72,71 +150,134 @@ public class MyHashMap<KeyType,ValueType>
      */
     public ValueType put( KeyType k, ValueType v )
     {
-        if ( theSize > (arr.length) ) //If the number of items are getting too 
-            rehash();                 //high then, rehash with a bigger array.
+        makeRoom( );
         
-        int hash1Result = myHash1( k );     //Find both hash codes.
-        int hash2Result = myHash2( k );
-        Node contains1 = listContains( k , hash1Result ); //Check both indeces.
-        Node contains2 = listContains( k , hash2Result );
+        int code1 = hash1.hashCode( k );    //Find both hash codes.
+        int code2 = hash2.hashCode( k );
+        Node contains = findNode( k, code1, code2 );  //Check both indeces.
         
-        if ( contains1 == null && contains2 == null)//If neither contains
-        {
-            theSize++;          //Increment the size
-            //List 1 is smaller or equal
-            if ( indexSize( hash1Result ) <= indexSize( hash2Result ))      
-                arr[ hash1Result ] = new Node( k , v , arr[ hash1Result ]);
-            else    //List 2 is smaller
-                arr[ hash2Result ] = new Node( k , v , arr[ hash2Result ]);
-            return null;
-        }
-        else if ( contains1 != null && contains2 == null )  //list 1 contains
+        if ( contains == null )             //If neither contains
         {
-            ValueType val = ( ValueType ) contains1.value;
-            contains1.value = v;
-            return val;
+            insert( k, v, code1, code2 );
+            return null;
         }
-        else                                                //list 2 contains
+        else                                //Some list contains
         {
-            ValueType val = ( ValueType ) contains2.value;
-            contains2.value = v;
+            ValueType val = ( ValueType ) contains.value;
+            contains.value = v;
             return val;
         }
     }
     
     /**
-     * Generates a hash code using the first hash function.
-     * @param k key that the hash code is being generated for.
-     * @return a hash code.
+     * Called before anything that may add a key. If the number of items is
+     * getting too high, rehashes with a bigger array; otherwise helps any
+     * rehash in progress.
+     */
+    private void makeRoom( )
+    {
+        if ( theSize > arr.length )
+            rehash( );
+        else
+            migrateSome( );
+    }
+    
+    /**
+     * Adds a key that is known not to be present.
+     * @param k the key.
+     * @param v the value.
+     * @param code1 the key's code from the first hash function.
+     * @param code2 the key's code from the second hash function.
      */
-    private int myHash1( KeyType k ) 
+    private void insert( KeyType k, ValueType v, int code1, int code2 )
     {
-        return Math.abs( hash1.hashCode( k ) % arr.length );
+        theSize++;
+        inserts++;
+        if ( link( new Node<>( k, v, code1, code2, null ) ) 
+                != index( code1, arr.length ) )
+            hash2Inserts++;
     }
     
     /**
-     * Generates hash code using the second hash function.
-     * @param k key that the hash code is being generated for.
-     * @return a hash code.
+     * Reduces a raw hash code to an index of an array of the given length.
+     * @param code the hash code from one of the hash functions.
+     * @param length the length of the array.
+     * @return the index.
      */
-    private int myHash2( KeyType k )
+    private static int index( int code, int length )
     {
-        return Math.abs( hash2.hashCode( k ) % arr.length );
+        return Math.abs( code % length );
     }
     
     /**
-     * Determines if an index in the hash table contains a specific key, k.
+     * Adds a Node to the front of the shorter of its two lists in the array.
+     * Uses the Node's saved hash codes, so no hash function is called.
+     * @param n the Node.
+     * @return the index of the list the Node went to.
+     */
+    private int link( Node<KeyType, ValueType> n )
+    {
+        int hash1Result = index( n.code1, arr.length );
+        int hash2Result = index( n.code2, arr.length );
+        //List 1 is smaller or equal
+        int index = ( lengths[ hash1Result ] <= lengths[ hash2Result ] )
+                ? hash1Result : hash2Result;
+        n.next = arr[ index ];
+        arr[ index ] = n;
+        lengthChanged( lengths[ index ], lengths[ index ] + 1 );
+        lengths[ index ]++;
+        return index;
+    }
+    
+    /**
+     * Keeps the count of lists of each size, and the longest size, up to date
+     * when one list grows or shrinks.
+     * @param from the old size of the list.
+     * @param to the new size of the list.
+     */
+    private void lengthChanged( int from, int to )
+    {
+        if ( to >= lengthCounts.length )
+            lengthCounts = Arrays.copyOf( lengthCounts, to * 2 );
+        lengthCounts[ from ]--;
+        lengthCounts[ to ]++;
+        if ( to > maxLength )
+            maxLength = to;
+        while ( maxLength > 0 && lengthCounts[ maxLength ] == 0 )
+            maxLength--;
+    }
+    
+    /**
+     * Determines if an index in the given array contains a specific key, k.
+     * The saved hash code is compared first so that equals is only called
+     * on likely matches.
+     * @param table the array being searched.
      * @param k the key in question.
+     * @param code1 the key's code from the first hash function.
      * @param index the index being searched.
      * @return the Node containing the key, or null if not found.
      */
-    private Node listContains( KeyType k, int index )
+    private Node listContains( Node [ ] table, KeyType k, int code1, 
+                               int index )
+    {    
+        return listContains( table[ index ], k, code1 );
+    }
+    
+    /**
+     * Determines if the list starting at a given Node contains a key, k.
+     * @param first the first Node of the list.
+     * @param k the key in question.
+     * @param code1 the key's code from the first hash function.
+     * @return the Node containing the key, or null if not found.
+     */
+    private Node listContains( Node first, KeyType k, int code1 )
     {    
-        Node current = arr[ index ];                //Get the first Node
+        Node current = first;                       //Get the first Node
         while ( current != null )                   //While not end of list
         {
+            probes++;
             KeyType k1 = (KeyType) current.key;     //Get current key
-            if ( k.equals( k1 ) )                   //Compare with search
+            if ( current.code1 == code1 && k.equals( k1 ) ) //Compare
                 return current;                     //Exit, if found
             
             current = current.next;                 //Otherwise, continue
@@ -145,48 +286,199 @@ public class MyHashMap<KeyType,ValueType>
     }
     
     /**
-     * Private routine that enlarges the array. 
+     * Finds the Node holding a key, checking both of its lists and, while a
+     * rehash is in progress, both of its lists in the old array as well.
+     * @param k the key in question.
+     * @param code1 the key's code from the first hash function.
+     * @param code2 the key's code from the second hash function.
+     * @return the Node containing the key, or null if not found.
+     */
+    private Node findNode( KeyType k, int code1, int code2 )
+    {
+        Node found = listContains( arr, k, code1, index( code1, arr.length ) );
+        if ( found == null )
+            found = listContains( arr, k, code1, index( code2, arr.length ) );
+        if ( found == null && oldArr != null )
+        {
+            found = listContains( oldArr, k, code1, 
+                                  index( code1, oldArr.length ) );
+            if ( found == null )
+                found = listContains( oldArr, k, code1, 
+                                      index( code2, oldArr.length ) );
+        }
+        return found;
+    }
+    
+    /**
+     * Private routine that enlarges the array. The current array becomes the
+     * old array and its buckets are moved into the new one; in incremental
+     * mode only a few at a time, otherwise all of them right away.
      */
     private void rehash()
     {
-        MyHashMap<KeyType, ValueType> tempHash
-                = new MyHashMap<>( hash1, hash2 );
-        tempHash.arr = new Node[ arr.length * 4 ];
+        rehash( arr.length * 4 );
+    }
+    
+    /**
+     * Private routine that enlarges the array to a given length, unless a
+     * rehash is already in progress.
+     * @param newLength the length of the new array.
+     */
+    private void rehash( int newLength )
+    {
+        if ( oldArr == null )
+        {
+            oldArr = arr;
+            oldLengths = lengths;
+            arr = new Node[ newLength ];
+            lengths = new int[ arr.length ];
+            lengthCounts[ 0 ] += arr.length;
+            migrateIndex = 0;
+            resizes++;
+        }
         
-        int index = 0;
-        while ( index < arr.length )
+        if ( incremental )
+            migrateSome( );
+        else
+            while ( oldArr != null )
+                migrateSome( );
+    }
+    
+    /**
+     * Moves the next few buckets of the old array, if any, into the new array.
+     * Nodes are relinked rather than copied, and placed using their saved
+     * hash codes.
+     */
+    private void migrateSome( )
+    {
+        if ( oldArr == null )
+            return;
+        
+        long start = System.nanoTime( );
+        int end = Math.min( migrateIndex + MIGRATE_STEP, oldArr.length );
+        while ( migrateIndex < end )
         {
-            Node curr = arr[ index ];
+            Node curr = oldArr[ migrateIndex ];
+            oldArr[ migrateIndex ] = null;
+            lengthChanged( oldLengths[ migrateIndex ], 0 );
+            oldLengths[ migrateIndex ] = 0;
+            while ( curr != null )
             {
-                while ( curr != null )
-                {
-                    tempHash.put( (KeyType) curr.key, (ValueType) curr.value );
-                    curr = curr.next;
-                }
+                Node next = curr.next;
+                link( curr );
+                curr = next;
             }
-            index++;
+            migrateIndex++;
         }
         
-        arr = tempHash.arr ;
-        tempHash = null ;
+        if ( migrateIndex == oldArr.length )     //Done--drop the old array
+        {
+            lengthCounts[ 0 ] -= oldArr.length;
+            oldArr = null;
+            oldLengths = null;
+            migrateIndex = 0;
+        }
+        rehashNanos += System.nanoTime( ) - start;
     }
     
     /**
-     * Determines the size (number of items) in the list at a given index.
-     * @param index the index of the hash table.
-     * @return the number of items 
+     * Enlarges the array, if needed, so that the map can hold the given
+     * number of items without another rehash. Any rehash in progress is
+     * finished first, and the enlargement is done right away in either mode.
+     * @param expectedSize the number of items expected.
      */
-    private int indexSize( int index )
+    public void ensureCapacity( int expectedSize )
     {
-        int countNodes = 0;
-        Node current = arr[ index ];
-        while ( current != null )
+        while ( oldArr != null )
+            migrateSome( );
+        if ( expectedSize > arr.length )
         {
-            current = current.next;
-            countNodes++;
+            rehash( expectedSize );
+            while ( oldArr != null )
+                migrateSome( );
+        }
+    }
+    
+    /**
+     * Adds every key with its matching value, sizing the array once for the
+     * whole batch instead of rehashing repeatedly as it fills.
+     * @param keys the keys.
+     * @param values the values; values[ i ] goes with keys[ i ].
+     */
+    public void putAll( KeyType [ ] keys, ValueType [ ] values )
+    {
+        if ( keys.length != values.length )
+            throw new IllegalArgumentException( "Got " + keys.length 
+                    + " keys but " + values.length + " values" );
+        ensureCapacity( theSize + keys.length );
+        for ( int i = 0; i < keys.length; i++ )
+            put( keys[ i ], values[ i ] );
+    }
+    
+    /**
+     * Adds every entry of a map, sizing the array once for the whole batch
+     * instead of rehashing repeatedly as it fills.
+     * @param m the entries to add.
+     */
+    public void putAll( Map<? extends KeyType, ? extends ValueType> m )
+    {
+        ensureCapacity( theSize + m.size( ) );
+        for ( Map.Entry<? extends KeyType, ? extends ValueType> e 
+                : m.entrySet( ) )
+            put( e.getKey( ), e.getValue( ) );
+    }
+    
+    /**
+     * Looks up many keys at once. Keys are handled in small blocks: every
+     * hash code of a block is computed and every first Node is loaded before
+     * any list is searched, so the memory loads of different keys overlap
+     * instead of waiting on each other.
+     * @param keys the keys.
+     * @param results receives the value of keys[ i ] in results[ i ], or
+     * null if the key is not present.
+     * @return the number of keys found.
+     */
+    public int getAll( KeyType [ ] keys, ValueType [ ] results )
+    {
+        if ( results.length < keys.length )
+            throw new IllegalArgumentException( "Results array too short" );
+        migrateSome( );
+        
+        int [ ] codes1 = new int[ BATCH_SIZE ];
+        Node [ ] firsts1 = new Node[ BATCH_SIZE ];
+        Node [ ] firsts2 = new Node[ BATCH_SIZE ];
+        int found = 0;
+        long before = probes;
+        
+        for ( int start = 0; start < keys.length; start += BATCH_SIZE )
+        {
+            int count = Math.min( BATCH_SIZE, keys.length - start );
+            for ( int j = 0; j < count; j++ )       //Hash the whole block
+            {
+                KeyType k = keys[ start + j ];
+                codes1[ j ] = hash1.hashCode( k );
+                firsts1[ j ] = arr[ index( codes1[ j ], arr.length ) ];
+                firsts2[ j ] = arr[ index( hash2.hashCode( k ), arr.length ) ];
+            }
+            for ( int j = 0; j < count; j++ )       //Then search each list
+            {
+                KeyType k = keys[ start + j ];
+                Node contains = listContains( firsts1[ j ], k, codes1[ j ] );
+                if ( contains == null )
+                    contains = listContains( firsts2[ j ], k, codes1[ j ] );
+                if ( contains == null && oldArr != null )
+                    contains = findNode( k, codes1[ j ], hash2.hashCode( k ) );
+                
+                results[ start + j ] = ( contains == null ) 
+                        ? null : (ValueType) contains.value;
+                if ( contains != null )
+                    found++;
+            }
         }
         
-        return countNodes;
+        gets += keys.length;
+        getProbes += probes - before;
+        return found;
     }
     
     /**
@@ -196,64 +488,189 @@ public class MyHashMap<KeyType,ValueType>
      */
     public boolean remove( KeyType k )
     {
-        //int min = findMinHashCode( k );
-        int hash1Code = myHash1( k );
-        int hash2Code = myHash2( k );
-        Node contains1 = listContains( k, hash1Code );
-        Node contains2 = listContains( k, hash2Code );
+        migrateSome( );
+        Node<KeyType, ValueType> n 
+                = locate( k, hash1.hashCode( k ), hash2.hashCode( k ) );
+        if ( n == null )
+            return false;
+        unlinkLocated( n );
+        return true;
+    }
+    
+    /**
+     * Returns the value of a key, first adding the value computed from the
+     * key if the key is absent. The key's lists are searched once; a key
+     * that is found is not searched for again. The function must not change
+     * this map.
+     * @param k the key.
+     * @param f computes the value for an absent key; a null result adds
+     * nothing.
+     * @return the current value, or null if none.
+     */
+    public ValueType computeIfAbsent( KeyType k, 
+            Function<? super KeyType, ? extends ValueType> f )
+    {
+        makeRoom( );
+        int code1 = hash1.hashCode( k );
+        int code2 = hash2.hashCode( k );
+        Node<KeyType, ValueType> n = locate( k, code1, code2 );
+        if ( n != null && n.value != null )
+            return n.value;
         
-        if ( contains1 == null && contains2 == null )
-        { return false; }
-        else if ( contains1 != null & contains2 == null )   //list 1 contains
+        ValueType v = f.apply( k );
+        if ( v != null )
         {
-            theSize--;
-            Node current = arr[hash1Code];
-            if ( current == contains1 )         //first node
-            {
-               arr[ hash1Code ] = current.next;
-                return true;
-            }
-            while ( current.next != contains1 ) //nodes after the first
-            {
-                current = current.next;
-            }
-            current.next = contains1.next;
-            return true;
+            if ( n != null )
+                n.value = v;
+            else
+                insert( k, v, code1, code2 );
+        }
+        return v;
+    }
+    
+    /**
+     * Combines a value with the value already held for a key, such as adding
+     * to a count. If the key is absent (or holds null) the value is added as
+     * is; otherwise the key gets f( old, v ), and is removed if that is null.
+     * The key's lists are searched once. The function must not change this
+     * map.
+     * @param k the key.
+     * @param v the value to combine; must not be null.
+     * @param f combines the old value and v.
+     * @return the new value, or null if the key was removed.
+     */
+    public ValueType merge( KeyType k, ValueType v, 
+            BiFunction<? super ValueType, ? super ValueType, 
+                       ? extends ValueType> f )
+    {
+        if ( v == null )
+            throw new NullPointerException( "merge value" );
+        makeRoom( );
+        int code1 = hash1.hashCode( k );
+        int code2 = hash2.hashCode( k );
+        Node<KeyType, ValueType> n = locate( k, code1, code2 );
+        if ( n == null )
+        {
+            insert( k, v, code1, code2 );
+            return v;
         }
-        else    //list 2 Contains
+        
+        ValueType newValue = ( n.value == null ) ? v : f.apply( n.value, v );
+        if ( newValue == null )
+            unlinkLocated( n );
+        else
+            n.value = newValue;
+        return newValue;
+    }
+    
+    /**
+     * Replaces the value of a key with f( key, old value ), where the old
+     * value is null if the key is absent. A null result removes the key.
+     * The key's lists are searched once. The function must not change this
+     * map.
+     * @param k the key.
+     * @param f computes the new value.
+     * @return the new value, or null if there is none.
+     */
+    public ValueType compute( KeyType k, 
+            BiFunction<? super KeyType, ? super ValueType, 
+                       ? extends ValueType> f )
+    {
+        makeRoom( );
+        int code1 = hash1.hashCode( k );
+        int code2 = hash2.hashCode( k );
+        Node<KeyType, ValueType> n = locate( k, code1, code2 );
+        ValueType newValue = f.apply( k, ( n == null ) ? null : n.value );
+        if ( n == null )
         {
-            theSize--;
-            Node current = arr[hash2Code];
-            if ( current == contains2 )         //first node
-            {
-                arr[ hash2Code ] = current.next;
-                return true;
-            }
-            while ( current.next != contains2 ) //nodes after the first
+            if ( newValue != null )
+                insert( k, newValue, code1, code2 );
+        }
+        else if ( newValue == null )
+            unlinkLocated( n );
+        else
+            n.value = newValue;
+        return newValue;
+    }
+    
+    /**
+     * Finds the Node holding a key, like findNode, and remembers where it
+     * was found and which Node comes before it, so that unlinkLocated can
+     * remove it without walking the list again.
+     * @param k the key in question.
+     * @param code1 the key's code from the first hash function.
+     * @param code2 the key's code from the second hash function.
+     * @return the Node containing the key, or null if not found.
+     */
+    private Node<KeyType, ValueType> locate( KeyType k, int code1, int code2 )
+    {
+        Node<KeyType, ValueType> found 
+                = locateInList( arr, lengths, k, code1, 
+                                index( code1, arr.length ) );
+        if ( found == null )
+            found = locateInList( arr, lengths, k, code1, 
+                                  index( code2, arr.length ) );
+        if ( found == null && oldArr != null )
+        {
+            found = locateInList( oldArr, oldLengths, k, code1, 
+                                  index( code1, oldArr.length ) );
+            if ( found == null )
+                found = locateInList( oldArr, oldLengths, k, code1, 
+                                      index( code2, oldArr.length ) );
+        }
+        return found;
+    }
+    
+    /**
+     * Searches one list for a key, remembering the Node before each Node
+     * examined.
+     * @param table the array holding the list.
+     * @param sizes the list sizes of that array.
+     * @param k the key in question.
+     * @param code1 the key's code from the first hash function.
+     * @param index the index of the list.
+     * @return the Node containing the key, or null if not found.
+     */
+    private Node<KeyType, ValueType> locateInList( 
+            Node<KeyType, ValueType> [ ] table, int [ ] sizes, KeyType k, 
+            int code1, int index )
+    {
+        Node<KeyType, ValueType> prev = null;
+        for ( Node<KeyType, ValueType> current = table[ index ]; 
+              current != null; current = current.next )
+        {
+            probes++;
+            if ( current.code1 == code1 && k.equals( current.key ) )
             {
-                current = current.next;
+                foundTable = table;
+                foundSizes = sizes;
+                foundIndex = index;
+                foundPrev = prev;
+                return current;
             }
-            current.next = contains2.next;
-            return true;
+            prev = current;
         }
+        return null;
     }
     
     /**
-     * Computes two hash codes and returns the one that has the smaller list.
-     * @param k the key.
-     * @return the hash code with the smaller list.
+     * Removes the Node most recently returned by locate, using the place
+     * locate remembered.
+     * @param n the Node.
      */
-    private int findMinHashCode( KeyType k )
+    private void unlinkLocated( Node<KeyType, ValueType> n )
     {
-        int hash1Result = myHash1( k );
-        int hash2Result = myHash2( k );
-        int list1Size = indexSize( hash1Result );
-        int list2Size = indexSize( hash2Result );
-        
-        if ( list1Size <= list2Size )
-            return hash1Result;
+        if ( foundPrev == null )                    //first node
+            foundTable[ foundIndex ] = n.next;
         else
-            return hash2Result;
+            foundPrev.next = n.next;
+        lengthChanged( foundSizes[ foundIndex ], 
+                       foundSizes[ foundIndex ] - 1 );
+        foundSizes[ foundIndex ]--;
+        theSize--;
+        foundTable = null;                          //Don't hold the array
+        foundSizes = null;
+        foundPrev = null;
     }
     
     /**
@@ -263,14 +680,201 @@ public class MyHashMap<KeyType,ValueType>
      */
     public ValueType get( KeyType k )
     {
-        int min = findMinHashCode( k );
-        Node contains = listContains( k , min );
+        migrateSome( );
+        long before = probes;
+        Node contains = findNode( k, hash1.hashCode( k ), hash2.hashCode( k ) );
+        gets++;
+        getProbes += probes - before;
         if ( contains != null )
             return (ValueType) contains.value;
         else
             return null;
     }
     
+    /**
+     * Writes the whole map to a channel in a compact binary form that keeps
+     * the list layout, so that readSnapshot can rebuild the map without
+     * calling the hash functions or rehashing. Any rehash in progress is
+     * finished first.
+     * 
+     * Format: magic, version, array length, size; then for every list, its
+     * length followed by each entry as code1, code2, key length, key bytes,
+     * value length, value bytes. All numbers are big-endian ints.
+     * @param out the channel to write to; it is not closed.
+     * @param keys turns keys into bytes.
+     * @param values turns values into bytes.
+     * @throws IOException if writing fails.
+     */
+    public void writeSnapshot( WritableByteChannel out, Codec<KeyType> keys,
+                               Codec<ValueType> values ) throws IOException
+    {
+        while ( oldArr != null )
+            migrateSome( );
+        
+        ByteBuffer buf = ByteBuffer.allocate( SNAPSHOT_BUFFER );
+        buf.putInt( SNAPSHOT_MAGIC ).putInt( SNAPSHOT_VERSION );
+        buf.putInt( arr.length ).putInt( theSize );
+        for ( int i = 0; i < arr.length; i++ )
+        {
+            buf = room( out, buf, 4 );
+            buf.putInt( lengths[ i ] );
+            for ( Node<KeyType, ValueType> n = arr[ i ]; n != null; 
+                  n = n.next )
+            {
+                int keySize = keys.size( n.key );
+                int valueSize = values.size( n.value );
+                buf = room( out, buf, 16 + keySize + valueSize );
+                buf.putInt( n.code1 ).putInt( n.code2 ).putInt( keySize );
+                keys.write( n.key, buf );
+                buf.putInt( valueSize );
+                values.write( n.value, buf );
+            }
+        }
+        buf.flip( );
+        while ( buf.hasRemaining( ) )
+            out.write( buf );
+    }
+    
+    /**
+     * Rebuilds a map written by writeSnapshot. The hash functions must be the
+     * ones the map was written with, since the saved hash codes and list
+     * layout are used as is.
+     * @param in the channel to read from; it is not closed.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     * @param keys turns bytes back into keys.
+     * @param values turns bytes back into values.
+     * @return the map.
+     * @throws IOException if reading fails or the data is not a snapshot.
+     */
+    public static <KeyType, ValueType> MyHashMap<KeyType, ValueType> 
+            readSnapshot( ReadableByteChannel in, HashFunction<KeyType> h1, 
+                          HashFunction<KeyType> h2, Codec<KeyType> keys, 
+                          Codec<ValueType> values ) throws IOException
+    {
+        return readSnapshot( in, h1, h2, keys, values, false );
+    }
+    
+    /**
+     * Rebuilds a map written by writeSnapshot, choosing the rehash mode of
+     * the new map.
+     * @param in the channel to read from; it is not closed.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     * @param keys turns bytes back into keys.
+     * @param values turns bytes back into values.
+     * @param incrementalRehash true to spread later rehashing over calls.
+     * @return the map.
+     * @throws IOException if reading fails or the data is not a snapshot.
+     */
+    public static <KeyType, ValueType> MyHashMap<KeyType, ValueType> 
+            readSnapshot( ReadableByteChannel in, HashFunction<KeyType> h1, 
+                          HashFunction<KeyType> h2, Codec<KeyType> keys, 
+                          Codec<ValueType> values, boolean incrementalRehash )
+            throws IOException
+    {
+        ByteBuffer buf = ByteBuffer.allocate( SNAPSHOT_BUFFER );
+        buf.flip( );                                //Start out empty
+        buf = fill( in, buf, 16 );
+        if ( buf.getInt( ) != SNAPSHOT_MAGIC 
+                || buf.getInt( ) != SNAPSHOT_VERSION )
+            throw new IOException( "Not a MyHashMap snapshot" );
+        int length = buf.getInt( );
+        int size = buf.getInt( );
+        
+        MyHashMap<KeyType, ValueType> map 
+                = new MyHashMap<>( h1, h2, incrementalRehash, length );
+        for ( int i = 0; i < length; i++ )
+        {
+            buf = fill( in, buf, 4 );
+            int listSize = buf.getInt( );
+            Node<KeyType, ValueType> last = null;
+            for ( int j = 0; j < listSize; j++ )    //Keep the list order
+            {
+                buf = fill( in, buf, 12 );
+                int code1 = buf.getInt( );
+                int code2 = buf.getInt( );
+                int keySize = buf.getInt( );
+                buf = fill( in, buf, keySize + 4 );
+                KeyType k = read( keys, buf, keySize );
+                int valueSize = buf.getInt( );
+                buf = fill( in, buf, valueSize );
+                ValueType v = read( values, buf, valueSize );
+                
+                Node<KeyType, ValueType> n 
+                        = new Node<>( k, v, code1, code2, null );
+                if ( last == null )
+                    map.arr[ i ] = n;
+                else
+                    last.next = n;
+                last = n;
+            }
+            map.lengthChanged( 0, listSize );
+            map.lengths[ i ] = listSize;
+            map.theSize += listSize;
+        }
+        if ( map.theSize != size )
+            throw new IOException( "Snapshot holds " + map.theSize 
+                                   + " items but claims " + size );
+        return map;
+    }
+    
+    /**
+     * Makes sure the write buffer has room for n more bytes, sending what it
+     * holds to the channel, or swapping in a larger buffer, as needed.
+     * @return the buffer to keep writing into.
+     */
+    private static ByteBuffer room( WritableByteChannel out, ByteBuffer buf,
+                                    int n ) throws IOException
+    {
+        if ( buf.remaining( ) >= n )
+            return buf;
+        buf.flip( );
+        while ( buf.hasRemaining( ) )
+            out.write( buf );
+        if ( buf.capacity( ) < n )
+            return ByteBuffer.allocate( n );
+        buf.clear( );
+        return buf;
+    }
+    
+    /**
+     * Makes sure the read buffer holds at least n unread bytes, reading from
+     * the channel, or swapping in a larger buffer, as needed.
+     * @return the buffer to keep reading from.
+     * @throws EOFException if the channel ends first.
+     */
+    private static ByteBuffer fill( ReadableByteChannel in, ByteBuffer buf,
+                                    int n ) throws IOException
+    {
+        if ( buf.remaining( ) >= n )
+            return buf;
+        if ( buf.capacity( ) < n )
+            buf = ByteBuffer.allocate( n ).put( buf );
+        else
+            buf.compact( );
+        while ( buf.position( ) < n )
+            if ( in.read( buf ) < 0 )
+                throw new EOFException( "Snapshot ends early" );
+        buf.flip( );
+        return buf;
+    }
+    
+    /**
+     * Decodes one object and checks that the codec used exactly its bytes.
+     */
+    private static <AnyType> AnyType read( Codec<AnyType> codec, 
+                                           ByteBuffer buf, int size ) 
+            throws IOException
+    {
+        int end = buf.position( ) + size;
+        AnyType x = codec.read( buf, size );
+        if ( buf.position( ) != end )
+            throw new IOException( "Codec read " + ( buf.position( ) - end 
+                                   + size ) + " of " + size + " bytes" );
+        return x;
+    }
+    
     /**
      * Represents the hash table as a String.
      * @return the hash table.
@@ -280,9 +884,9 @@ public class MyHashMap<KeyType,ValueType>
         StringBuilder sb = new StringBuilder() ;
         sb.append( "[ " );
         int index = 0;
-        while ( index < arr.length )
+        while ( index < bucketCount( ) )
         {
-            Node current = arr[ index ];
+            Node current = bucket( index );
             while ( current != null )
             {
                 sb.append( current );
@@ -300,7 +904,32 @@ public class MyHashMap<KeyType,ValueType>
     }
     
     /**
-     * An iterator that allows iteration through the hash table.
+     * Returns the number of lists, counting the old array while a rehash is
+     * in progress.
+     * @return the number of lists.
+     */
+    private int bucketCount( )
+    {
+        return ( oldArr == null ) ? arr.length : arr.length + oldArr.length;
+    }
+    
+    /**
+     * Returns a list by number; lists past the end of the array belong to the
+     * old array.
+     * @param index the list number.
+     * @return the first Node of the list.
+     */
+    private Node<KeyType, ValueType> bucket( int index )
+    {
+        return ( index < arr.length ) ? arr[ index ] 
+                                      : oldArr[ index - arr.length ];
+    }
+    
+    /**
+     * An iterator that allows iteration through the hash table. The entries
+     * it returns are the map's own Nodes, so iterating allocates nothing per
+     * entry. While a rehash is in progress, calling put, get or remove during
+     * iteration may move entries between arrays.
      * @return an Iterator.
      */
     public Iterator<Map.Entry<KeyType, ValueType>> iterator( )
@@ -317,29 +946,7 @@ public class MyHashMap<KeyType,ValueType>
             
             public Map.Entry<KeyType, ValueType> next( )
             {
-                final Node<KeyType, ValueType> theCurrent = current;
-                
-                Map.Entry<KeyType, ValueType> nextItem 
-                        = new Map.Entry<KeyType, ValueType>( )
-                {
-                    public KeyType getKey()
-                    {
-                        return theCurrent.key;
-                    }
-
-                    public ValueType getValue()
-                    {
-                        return theCurrent.value;
-                    }
-
-                    public ValueType setValue(ValueType value)
-                    {
-                        ValueType val = theCurrent.value;
-                        theCurrent.value = value;
-                        return val;
-                        //throw UnsupportedOperationException();
-                    }
-                };
+                Map.Entry<KeyType, ValueType> nextItem = current;
                  
                 current = current.next;
                 
@@ -354,11 +961,11 @@ public class MyHashMap<KeyType,ValueType>
             
             private void advanceToNewList( )
             {
-                while( listNum < arr.length && arr[ listNum ] == null )
+                while( listNum < bucketCount( ) && bucket( listNum ) == null )
                     listNum++;
                 
-                if( listNum != arr.length )  // current is already null
-                    current = arr[ listNum ];
+                if( listNum != bucketCount( ) )  // current is already null
+                    current = bucket( listNum );
             }
             
             {
@@ -369,19 +976,216 @@ public class MyHashMap<KeyType,ValueType>
     }
     
     /**
-     * Node class that comprises of a key and a value.
+     * Passes every key and value to an action, walking the lists directly
+     * so that nothing is allocated.
+     * @param action the action.
+     */
+    public void forEach( BiConsumer<? super KeyType, ? super ValueType> action )
+    {
+        for ( int i = 0; i < bucketCount( ); i++ )
+            for ( Node<KeyType, ValueType> n = bucket( i ); n != null; 
+                  n = n.next )
+                action.accept( n.key, n.value );
+    }
+    
+    /**
+     * Returns a cursor over the hash table. One cursor can be reset and used
+     * for any number of scans, so repeated scans allocate nothing.
+     * @return a Cursor, positioned before the first entry.
+     */
+    public Cursor cursor( )
+    {
+        return new Cursor( );
+    }
+    
+    /**
+     * A reusable position in the hash table. Call next to move to each entry
+     * in turn, then read it with key and value.
+     */
+    public class Cursor
+    {
+        private Node<KeyType, ValueType> current;   // current node
+        private int listNum = -1;                   // current list #
+        
+        /**
+         * Moves to the next entry.
+         * @return false if there are no more entries.
+         */
+        public boolean next( )
+        {
+            if ( current != null )
+                current = current.next;
+            while ( current == null && ++listNum < bucketCount( ) )
+                current = bucket( listNum );
+            return current != null;
+        }
+        
+        /**
+         * @return the key of the current entry.
+         */
+        public KeyType key( )
+        {
+            return current.key;
+        }
+        
+        /**
+         * @return the value of the current entry.
+         */
+        public ValueType value( )
+        {
+            return current.value;
+        }
+        
+        /**
+         * Replaces the value of the current entry.
+         * @param v the new value.
+         * @return the old value.
+         */
+        public ValueType setValue( ValueType v )
+        {
+            return current.setValue( v );
+        }
+        
+        /**
+         * Moves the cursor back to before the first entry.
+         */
+        public void reset( )
+        {
+            current = null;
+            listNum = -1;
+        }
+    }
+    
+    /**
+     * Returns a Spliterator over the hash table that splits by ranges of
+     * lists, so a parallel stream can work on different parts of the array
+     * at once. The map must not be changed while it is in use.
+     * @return a Spliterator.
+     */
+    public Spliterator<Map.Entry<KeyType, ValueType>> spliterator( )
+    {
+        return new ListRangeSpliterator( 0, bucketCount( ) );
+    }
+    
+    /**
+     * Returns a sequential Stream of the entries.
+     * @return a Stream.
+     */
+    public Stream<Map.Entry<KeyType, ValueType>> stream( )
+    {
+        return StreamSupport.stream( spliterator( ), false );
+    }
+    
+    /**
+     * Returns a parallel Stream of the entries.
+     * @return a Stream.
+     */
+    public Stream<Map.Entry<KeyType, ValueType>> parallelStream( )
+    {
+        return StreamSupport.stream( spliterator( ), true );
+    }
+    
+    /**
+     * Spliterator over the lists numbered lo (inclusive) to hi (exclusive).
+     */
+    private class ListRangeSpliterator 
+            implements Spliterator<Map.Entry<KeyType, ValueType>>
+    {
+        private int listNum;                        // next list #
+        private final int hi;                       // end of the range
+        private Node<KeyType, ValueType> current;   // next node in list
+        
+        ListRangeSpliterator( int lo, int hi )
+        {
+            listNum = lo;
+            this.hi = hi;
+        }
+        
+        public boolean tryAdvance( 
+                Consumer<? super Map.Entry<KeyType, ValueType>> action )
+        {
+            while ( current == null && listNum < hi )
+                current = bucket( listNum++ );
+            if ( current == null )
+                return false;
+            Node<KeyType, ValueType> n = current;
+            current = current.next;
+            action.accept( n );
+            return true;
+        }
+        
+        public void forEachRemaining( 
+                Consumer<? super Map.Entry<KeyType, ValueType>> action )
+        {
+            for ( ; current != null; current = current.next )
+                action.accept( current );
+            for ( ; listNum < hi; listNum++ )
+                for ( Node<KeyType, ValueType> n = bucket( listNum ); 
+                      n != null; n = n.next )
+                    action.accept( n );
+        }
+        
+        public Spliterator<Map.Entry<KeyType, ValueType>> trySplit( )
+        {
+            int mid = ( listNum + hi ) >>> 1;
+            if ( current != null || mid <= listNum )
+                return null;
+            ListRangeSpliterator prefix = new ListRangeSpliterator( listNum, 
+                                                                    mid );
+            listNum = mid;
+            return prefix;
+        }
+        
+        public long estimateSize( )
+        {
+            int lists = bucketCount( );
+            return ( lists == 0 ) ? 0 
+                    : (long) theSize * ( hi - listNum ) / lists;
+        }
+        
+        public int characteristics( )
+        {
+            return Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+    
+    /**
+     * Node class that comprises of a key and a value, along with the key's
+     * codes from both hash functions so they never have to be recomputed.
+     * A Node is its own Map.Entry, so iteration needs no wrapper objects.
      * @param <KeyType> represents a key.
      * @param <ValueType> represents a value.
      */
-    private static class Node<KeyType, ValueType>
+    private static class Node<KeyType, ValueType> 
+            implements Map.Entry<KeyType, ValueType>
     {
         KeyType key;
         ValueType value;
+        final int code1;                    //hash1.hashCode( key )
+        final int code2;                    //hash2.hashCode( key )
         Node<KeyType, ValueType> next ;
         
-        Node( KeyType k, ValueType v, Node<KeyType, ValueType> n )
+        Node( KeyType k, ValueType v, int c1, int c2, 
+              Node<KeyType, ValueType> n )
         {
-            key = k; value = v; next = n; 
+            key = k; value = v; code1 = c1; code2 = c2; next = n; 
+        }
+        
+        public KeyType getKey( )
+        {
+            return key;
+        }
+        
+        public ValueType getValue( )
+        {
+            return value;
+        }
+        
+        public ValueType setValue( ValueType v )
+        {
+            ValueType val = value;
+            value = v;
+            return val;
         }
         
         public String toString( )
@@ -391,18 +1195,36 @@ public class MyHashMap<KeyType,ValueType>
     }
     
     /**
-     * Returns an array with a distribution of the hash table.
+     * Returns an array with a distribution of the hash table: entry s is the
+     * number of lists holding s items. The array has at least 20 entries and
+     * always covers the longest list.
      * @return the distribution array.
      */
     public int [ ] getLengths()
     {
-        int [ ] count = new int [ 20 ];
-        Arrays.fill( count, 0 );
-        for( int i = 0; i < arr.length; i++ )
-        {
-            int s = indexSize( i );
-            count[ s ] = count[ s ] + 1; 
-        }
-        return count;
+        return Arrays.copyOf( lengthCounts, 
+                              Math.max( 20, maxLength + 1 ) );
+    }
+    
+    /**
+     * Returns a snapshot of the counters this map keeps as it runs. Nothing
+     * is recomputed, so this is cheap enough to call often.
+     * @return the statistics.
+     */
+    public HashMapStatistics getStatistics( )
+    {
+        return new HashMapStatistics( theSize, bucketCount( ), maxLength,
+                                      gets, getProbes, inserts, hash2Inserts,
+                                      resizes, rehashNanos, getLengths( ) );
+    }
+    
+    /**
+     * Resets the get, insert and rehash counters to zero. Sizes and list
+     * lengths are unaffected.
+     */
+    public void resetStatistics( )
+    {
+        gets = getProbes = inserts = hash2Inserts = rehashNanos = 0;
+        resizes = 0;
     }
 }
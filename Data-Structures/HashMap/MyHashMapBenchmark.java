@@ -0,0 +1,490 @@
+package cop3530;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+/**
+ *
+ * File: MyHashMapBenchmark.java
+ *
+ * The purpose of this class is to time the hash maps in this package.
+ * The first part times put, get and remove on one thread for several map
+ * sizes, reporting nanoseconds and bytes allocated per operation. The second
+ * part measures multi-threaded throughput. Run it with no arguments for the
+ * default sizes, or pass the number of threads and the number of operations
+ * per thread for the second part. The last part prints the distribution of
+ * list lengths that different pairs of hash functions give MyHashMap.
+ *
+ * @author Aqib
+ */
+public class MyHashMapBenchmark
+{
+    private static final int [ ] SIZES = { 1_000, 100_000, 1_000_000 } ;
+    private static final int KEY_RANGE = 1 << 20 ;      //Distinct keys
+    private static final int PUT_PERCENT = 20 ;         //Rest are gets
+    private static final int REMOVE_PERCENT = 5 ;
+    private static final int CHAIN_KEYS = 100_000 ;    //Keys per chain test
+    private static final int SHOWN_LENGTHS = 6 ;        //Histogram columns
+
+    private static final HashFunction<Integer> H1 = new HashFunction<Integer>( )
+    {
+        public int hashCode( Integer x )
+        {
+            int h = x * 0x9E3779B1;
+            return h ^ ( h >>> 16 );
+        }
+    };
+
+    private static final HashFunction<Integer> H2 = new HashFunction<Integer>( )
+    {
+        public int hashCode( Integer x )
+        {
+            int h = x * 0x85EBCA6B;
+            return h ^ ( h >>> 13 );
+        }
+    };
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean( );
+
+    /**
+     * Makes an empty map to benchmark.
+     */
+    private interface MapFactory
+    {
+        String name( ) ;
+        MapOps create( ) ;
+    }
+
+    /**
+     * One map operation, so every map can be driven by the same loop.
+     */
+    private interface MapOps
+    {
+        void put( Integer k, Integer v ) ;
+        Integer get( Integer k ) ;
+        boolean remove( Integer k ) ;
+    }
+
+    public static void main( String [ ] args ) throws InterruptedException
+    {
+        int threads = ( args.length > 0 ) ? Integer.parseInt( args[ 0 ] )
+                : Runtime.getRuntime( ).availableProcessors( );
+        int opsPerThread = ( args.length > 1 ) ? Integer.parseInt( args[ 1 ] )
+                : 2_000_000;
+
+        MapFactory [ ] maps = { myHashMap( false ), myHashMap( true ), 
+                                cuckooHashMap( ), fingerprintMyHashMap( ) };
+        for ( int round = 0; round < 2; round++ )   //First round is warm-up
+        {
+            System.out.println( ( round == 0 ) ? "Warm-up" : "Measured" );
+            for ( int n : SIZES )
+                for ( MapFactory map : maps )
+                    report( map, n );
+        }
+
+        for ( int round = 0; round < 2; round++ )   //First round is warm-up
+        {
+            System.out.println( ( round == 0 ) ? "Warm-up" : "Measured" );
+            report( "MyHashMap, global lock", threads, opsPerThread,
+                    lockedMyHashMap( ) );
+            report( "ConcurrentMyHashMap", threads, opsPerThread,
+                    concurrentMyHashMap( ) );
+        }
+
+        System.out.println( "List lengths" );
+        reportChains( );
+    }
+
+    /**
+     * Fills MyHashMaps with the same keys under different pairs of hash
+     * functions and prints the resulting list lengths. The hand-rolled pairs
+     * derive the second code from the first, so they fail together.
+     */
+    private static void reportChains( )
+    {
+        String [ ] strings = new String[ CHAIN_KEYS ];
+        Integer [ ] strided = new Integer[ CHAIN_KEYS ];
+        for ( int i = 0; i < CHAIN_KEYS; i++ )
+        {
+            strings[ i ] = "user:" + i;
+            strided[ i ] = i << 10;             //Low bits all zero
+        }
+
+        HashFunction<String> javaString = new HashFunction<String>( )
+        {
+            public int hashCode( String x )
+            {
+                return x.hashCode( );
+            }
+        };
+        HashFunction<String> javaString31 = new HashFunction<String>( )
+        {
+            public int hashCode( String x )
+            {
+                return x.hashCode( ) * 31 + 7;
+            }
+        };
+        HashFunction<Integer> identity = new HashFunction<Integer>( )
+        {
+            public int hashCode( Integer x )
+            {
+                return x;
+            }
+        };
+        HashFunction<Integer> shifted = new HashFunction<Integer>( )
+        {
+            public int hashCode( Integer x )
+            {
+                return x * 8 + 1;
+            }
+        };
+        HashFunctions.Pair<String> murmurStrings
+                = HashFunctions.stringPair( 1 );
+        HashFunctions.Pair<Integer> murmurInts
+                = HashFunctions.integerPair( 1 );
+
+        reportChains( "String, hashCode / hashCode*31+7", strings,
+                      javaString, javaString31 );
+        reportChains( "String, HashFunctions.stringPair", strings,
+                      murmurStrings.first( ), murmurStrings.second( ) );
+        reportChains( "Integer<<10, x / x*8+1", strided,
+                      identity, shifted );
+        reportChains( "Integer<<10, HashFunctions.integerPair", strided,
+                      murmurInts.first( ), murmurInts.second( ) );
+    }
+
+    /**
+     * Fills a MyHashMap with the given keys and prints the longest list, the
+     * average Nodes examined per get and the number of lists of each length.
+     * @param name the label to print.
+     * @param keys the keys.
+     * @param h1 first hash function.
+     * @param h2 second hash function.
+     */
+    private static <KeyType> void reportChains( String name, KeyType [ ] keys,
+                                                HashFunction<KeyType> h1,
+                                                HashFunction<KeyType> h2 )
+    {
+        MyHashMap<KeyType, Boolean> map = new MyHashMap<>( h1, h2 );
+        for ( KeyType k : keys )
+            map.put( k, Boolean.TRUE );
+        for ( KeyType k : keys )
+            map.get( k );
+        HashMapStatistics stats = map.getStatistics( );
+        int [ ] lengths = stats.getLengths( );
+        System.out.printf( "  %-40s maxLength=%-4d avgProbes=%-7.2f "
+                           + "lists by length=%s%s%n", name,
+                           stats.getMaxLength( ), stats.getAverageProbes( ),
+                           Arrays.toString( Arrays.copyOf( lengths, 
+                                                           SHOWN_LENGTHS ) ),
+                           ( stats.getMaxLength( ) >= SHOWN_LENGTHS ) 
+                                   ? " ..." : "" );
+    }
+
+    /**
+     * Makes plain MyHashMaps.
+     * @param incremental whether to use the incremental rehash mode.
+     * @return the factory.
+     */
+    private static MapFactory myHashMap( final boolean incremental )
+    {
+        return new MapFactory( )
+        {
+            public String name( )
+            {
+                return incremental ? "MyHashMap, incremental" : "MyHashMap";
+            }
+
+            public MapOps create( )
+            {
+                final MyHashMap<Integer, Integer> map
+                        = new MyHashMap<>( H1, H2, incremental );
+                return new MapOps( )
+                {
+                    public void put( Integer k, Integer v )
+                    {
+                        map.put( k, v );
+                    }
+
+                    public Integer get( Integer k )
+                    {
+                        return map.get( k );
+                    }
+
+                    public boolean remove( Integer k )
+                    {
+                        return map.remove( k );
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Makes CuckooHashMaps.
+     * @return the factory.
+     */
+    private static MapFactory cuckooHashMap( )
+    {
+        return new MapFactory( )
+        {
+            public String name( )
+            {
+                return "CuckooHashMap";
+            }
+
+            public MapOps create( )
+            {
+                final CuckooHashMap<Integer, Integer> map
+                        = new CuckooHashMap<>( H1, H2 );
+                return new MapOps( )
+                {
+                    public void put( Integer k, Integer v )
+                    {
+                        map.put( k, v );
+                    }
+
+                    public Integer get( Integer k )
+                    {
+                        return map.get( k );
+                    }
+
+                    public boolean remove( Integer k )
+                    {
+                        return map.remove( k );
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Makes FingerprintMyHashMaps.
+     * @return the factory.
+     */
+    private static MapFactory fingerprintMyHashMap( )
+    {
+        return new MapFactory( )
+        {
+            public String name( )
+            {
+                return "FingerprintMyHashMap";
+            }
+
+            public MapOps create( )
+            {
+                final FingerprintMyHashMap<Integer, Integer> map
+                        = new FingerprintMyHashMap<>( H1, H2 );
+                return new MapOps( )
+                {
+                    public void put( Integer k, Integer v )
+                    {
+                        map.put( k, v );
+                    }
+
+                    public Integer get( Integer k )
+                    {
+                        return map.get( k );
+                    }
+
+                    public boolean remove( Integer k )
+                    {
+                        return map.remove( k );
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Wraps a MyHashMap in one lock, the way callers share it today.
+     * @return the wrapped map.
+     */
+    private static MapOps lockedMyHashMap( )
+    {
+        final MyHashMap<Integer, Integer> map = new MyHashMap<>( H1, H2 );
+        return new MapOps( )
+        {
+            public synchronized void put( Integer k, Integer v )
+            {
+                map.put( k, v );
+            }
+
+            public synchronized Integer get( Integer k )
+            {
+                return map.get( k );
+            }
+
+            public synchronized boolean remove( Integer k )
+            {
+                return map.remove( k );
+            }
+        };
+    }
+
+    /**
+     * Adapts a ConcurrentMyHashMap.
+     * @return the adapted map.
+     */
+    private static MapOps concurrentMyHashMap( )
+    {
+        final ConcurrentMyHashMap<Integer, Integer> map
+                = new ConcurrentMyHashMap<>( H1, H2 );
+        return new MapOps( )
+        {
+            public void put( Integer k, Integer v )
+            {
+                map.put( k, v );
+            }
+
+            public Integer get( Integer k )
+            {
+                return map.get( k );
+            }
+
+            public boolean remove( Integer k )
+            {
+                return map.remove( k );
+            }
+        };
+    }
+
+    /**
+     * Fills a new map with n keys, looks each one up, looks up n keys that
+     * are not there and then removes each key, printing the cost per
+     * operation of each phase. Keys are distinct and boxed up front so that
+     * boxing is not counted.
+     * @param factory makes the map under test.
+     * @param n the number of keys.
+     */
+    private static void report( MapFactory factory, int n )
+    {
+        Integer [ ] keys = new Integer[ n ];
+        Integer [ ] absent = new Integer[ n ];
+        for ( int i = 0; i < n; i++ )       //Odd multiplier--all distinct
+        {
+            keys[ i ] = i * 0x61C88647 + 1;
+            absent[ i ] = ( n + i ) * 0x61C88647 + 1;
+        }
+        MapOps map = factory.create( );
+
+        long time = System.nanoTime( );
+        long bytes = allocatedBytes( );
+        for ( int i = 0; i < n; i++ )
+            map.put( keys[ i ], keys[ i ] );
+        printPhase( factory.name( ), "put", n, time, bytes );
+
+        time = System.nanoTime( );
+        bytes = allocatedBytes( );
+        int found = 0;
+        for ( int i = 0; i < n; i++ )
+            if ( map.get( keys[ i ] ) != null )
+                found++;
+        printPhase( factory.name( ), "get", n, time, bytes );
+
+        time = System.nanoTime( );
+        bytes = allocatedBytes( );
+        for ( int i = 0; i < n; i++ )
+            if ( map.get( absent[ i ] ) != null )
+                found++;
+        printPhase( factory.name( ), "miss", n, time, bytes );
+
+        time = System.nanoTime( );
+        bytes = allocatedBytes( );
+        for ( int i = 0; i < n; i++ )
+            if ( map.remove( keys[ i ] ) )
+                found--;
+        printPhase( factory.name( ), "remove", n, time, bytes );
+
+        if ( found != 0 )
+            throw new IllegalStateException( factory.name( ) 
+                                             + " lost keys" );
+    }
+
+    /**
+     * Prints the cost per operation of one phase.
+     * @param name the map's label.
+     * @param phase the operation.
+     * @param n the number of operations.
+     * @param startTime System.nanoTime( ) when the phase began.
+     * @param startBytes allocatedBytes( ) when the phase began.
+     */
+    private static void printPhase( String name, String phase, int n,
+                                    long startTime, long startBytes )
+    {
+        double nanos = (double) ( System.nanoTime( ) - startTime ) / n;
+        double bytes = (double) ( allocatedBytes( ) - startBytes ) / n;
+        System.out.printf( "  %-24s %-7s n=%,-10d %10.1f ns/op %8.1f B/op%n",
+                           name, phase, n, nanos, bytes );
+    }
+
+    /**
+     * Returns the bytes allocated so far by the calling thread.
+     * @return the byte count, or 0 if the JVM cannot report it.
+     */
+    private static long allocatedBytes( )
+    {
+        return THREADS.isThreadAllocatedMemorySupported( )
+                ? THREADS.getThreadAllocatedBytes( 
+                        Thread.currentThread( ).getId( ) )
+                : 0;
+    }
+
+    /**
+     * Runs a mixed put/get/remove workload on several threads at once and
+     * prints the throughput.
+     * @param name the label to print.
+     * @param threads the number of threads.
+     * @param opsPerThread the operations each thread performs.
+     * @param map the map under test.
+     */
+    private static void report( String name, int threads, final int opsPerThread,
+                                final MapOps map ) throws InterruptedException
+    {
+        final CountDownLatch start = new CountDownLatch( 1 );
+        Thread [ ] workers = new Thread[ threads ];
+        for ( int i = 0; i < threads; i++ )
+        {
+            final long seed = i;
+            workers[ i ] = new Thread( new Runnable( )
+            {
+                public void run( )
+                {
+                    Random rand = new Random( seed );
+                    try
+                    {
+                        start.await( );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        return;
+                    }
+                    for ( int op = 0; op < opsPerThread; op++ )
+                    {
+                        Integer k = rand.nextInt( KEY_RANGE );
+                        int dice = rand.nextInt( 100 );
+                        if ( dice < REMOVE_PERCENT )
+                            map.remove( k );
+                        else if ( dice < REMOVE_PERCENT + PUT_PERCENT )
+                            map.put( k, op );
+                        else
+                            map.get( k );
+                    }
+                }
+            } );
+            workers[ i ].start( );
+        }
+
+        long begin = System.nanoTime( );
+        start.countDown( );
+        for ( Thread t : workers )
+            t.join( );
+        long elapsed = System.nanoTime( ) - begin;
+
+        double opsPerSec = (double) threads * opsPerThread * 1e9 / elapsed;
+        System.out.printf( "  %-26s %2d threads  %,14.0f ops/s%n",
+                           name, threads, opsPerSec );
+    }
+}
@@ -242,6 +242,42 @@ public class LongestSubstring
         return str ;
     }
     
+    /**
+     * Creates every suffix of a String and sorts them.
+     * @param str the String, usually from compileFiles.
+     * @return the suffixes in sorted order.
+     */
+    public static TheString [] sortedSuffixes( String str )
+    {
+        TheString compiledString = new TheString( str ) ;
+        TheString [] suffixes = new TheString[ str.length() ] ;
+        for ( int i = 0 ; i < suffixes.length ; ++i )
+        {
+            suffixes[ i ] = compiledString.substring( i ) ;
+        }
+        Arrays.sort( suffixes ) ;
+        return suffixes ;
+    }
+    
+    /**
+     * Finds the longest common prefix of each sorted suffix with the one
+     * before it, counting only pairs that start in different files.
+     * @param suffixes the sorted suffixes.
+     * @param fileSize the boundary between the two files.
+     * @return the prefix lengths; the first is always 0.
+     */
+    public static int [] longestPrefixes( TheString [] suffixes , 
+            int fileSize )
+    {
+        int [] LCP = new int [ suffixes.length ] ;
+        for ( int i = 1 ; i < suffixes.length ; i++ )
+        {
+            LCP[ i ] = longestPrefix(suffixes[ i ] , 
+                suffixes[ i - 1 ], fileSize ) ;
+        }
+        return LCP ;
+    }
+    
     public static void main(String [] args)
     {   
         try
@@ -250,32 +286,14 @@ public class LongestSubstring
                     + ", " + args[ 1 ] ) ;
             String str = compileFiles( args[ 0 ] , args[ 1 ] ) ;
             
-            TheString compiledString = new TheString( str ) ;
-        
-            TheString [] suffixes = new TheString[ str.length() ] ;
-        
             long start, end, elapsed;
             start = System.currentTimeMillis( );
-            System.out.println("\nComputing substring ... ") ;
-            for ( int i = 0 ; i < suffixes.length ; ++i )
-            {
-                suffixes[ i ] = compiledString.substring( i ) ;
-            }
-        
-            System.out.println("\nFinished substring ... ") ;
-        
-            System.out.println( "\nStarting sort ... " ) ;
-            Arrays.sort( suffixes ) ;
+            System.out.println( "\nSorting suffixes ... " ) ;
+            TheString [] suffixes = sortedSuffixes( str ) ;
             System.out.println( "\nFinished sort ... " ) ;
         
             System.out.println("\nFinding least common prefix ( LCP ) ... ");
-        
-            int [] LCP = new int [ str.length() ] ;
-            for ( int i = 1 ; i < str.length() ; i++ )
-            {
-                LCP[ i ] = longestPrefix(suffixes[ i ] , 
-                    suffixes[ i - 1 ], fileOneSize ) ;
-            }
+            int [] LCP = longestPrefixes( suffixes , fileOneSize ) ;
         
             System.out.println("\nFound maximum LCP ... \n");
         